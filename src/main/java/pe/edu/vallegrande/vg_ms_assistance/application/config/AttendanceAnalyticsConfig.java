@@ -0,0 +1,9 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AttendanceAnalyticsProperties.class)
+public class AttendanceAnalyticsConfig {
+}
@@ -0,0 +1,25 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "attendance.analytics")
+public class AttendanceAnalyticsProperties {
+
+    // Filas (de todas las instituciones) que se mantienen en memoria por columnas, unos 40 bytes por fila.
+    // Una institución con más filas que esto en la ventana se calcula siempre con SQL
+    private long maxRows = 2_000_000;
+
+    // Años académicos que se cargan: el actual y los anteriores hasta completar esta cantidad. Los rangos
+    // que empiezan antes se calculan con SQL
+    private int academicYears = 2;
+
+    // Cada institución se vuelve a cargar pasado este tiempo (descarta las filas borradas)
+    private Duration reloadAfter = Duration.ofHours(6);
+
+    // Filas por bloque en las consultas paralelas
+    private int chunkSize = 65_536;
+}
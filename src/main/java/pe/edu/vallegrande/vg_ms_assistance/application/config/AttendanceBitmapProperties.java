@@ -0,0 +1,24 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "attendance.bitmap")
+public class AttendanceBitmapProperties {
+
+    // Sin bitmaps las estadísticas por estudiante se calculan siempre con SQL
+    private boolean enabled = true;
+
+    // Bitmaps (estudiante y año) que se mantienen en memoria
+    private long maximumSize = 100_000;
+
+    // Cada bitmap se vuelve a cargar pasado este tiempo: acota el desfase por escrituras que no pasan por
+    // esta instancia (otras réplicas del servicio o SQL directo)
+    private Duration reloadAfter = Duration.ofMinutes(10);
+
+    // Rangos que abarcan más años que este se calculan con SQL
+    private int maxRangeYears = 2;
+}
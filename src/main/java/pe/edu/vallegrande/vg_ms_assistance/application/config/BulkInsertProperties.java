@@ -0,0 +1,14 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "attendance.bulk")
+public class BulkInsertProperties {
+
+    // Registros por envío (y por transacción) en las cargas masivas
+    private int batchSize = 500;
+    // Errores por fila que se detallan en el informe de importación de CSV (el resto solo se cuenta)
+    private int importMaxErrors = 1000;
+}
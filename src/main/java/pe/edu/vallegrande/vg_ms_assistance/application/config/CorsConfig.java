@@ -16,6 +16,9 @@ public class CorsConfig {
         corsConfig.addAllowedOriginPattern("*");
         corsConfig.addAllowedMethod("*");
         corsConfig.addAllowedHeader("*");
+        corsConfig.addExposedHeader("X-Next-Cursor");
+        corsConfig.addExposedHeader("X-Total-Count");
+        corsConfig.addExposedHeader("Content-Disposition");
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", corsConfig);
@@ -0,0 +1,50 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "external.services")
+public class ExternalServicesProperties {
+
+    private Service student = new Service();
+    private Service institution = new Service();
+
+    @Data
+    public static class Service {
+        private String url;
+
+        // Pool de conexiones (Reactor Netty)
+        private int maxConnections = 50;
+        private int pendingAcquireMaxCount = 500;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictInBackground = Duration.ofSeconds(30);
+
+        // Timeouts
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration responseTimeout = Duration.ofSeconds(5);
+
+        // HTTP/2 sin TLS (h2c); requiere que el servicio remoto lo soporte
+        private boolean h2c = false;
+
+        // Tiempo máximo de cada consulta individual (por ID)
+        private Duration deadline = Duration.ofSeconds(3);
+        private Hedging hedging = new Hedging();
+    }
+
+    @Data
+    public static class Hedging {
+        private boolean enabled = false;
+        // Percentil de latencia tras el cual se envía la segunda petición
+        private double percentile = 0.95;
+        private int window = 256;
+        // Espera usada hasta tener muestras suficientes
+        private Duration initialDelay = Duration.ofMillis(200);
+        private Duration minDelay = Duration.ofMillis(20);
+        private Duration maxDelay = Duration.ofSeconds(1);
+    }
+}
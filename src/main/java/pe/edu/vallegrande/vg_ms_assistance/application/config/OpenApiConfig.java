@@ -93,6 +93,7 @@ public class OpenApiConfig implements WebFluxConfigurer {
                 .allowedOrigins("*")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH")
                 .allowedHeaders("*")
+                .exposedHeaders("X-Next-Cursor", "X-Total-Count")
                 .maxAge(3600);
     }
 }
\ No newline at end of file
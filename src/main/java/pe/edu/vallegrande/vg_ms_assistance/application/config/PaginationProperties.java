@@ -0,0 +1,24 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "attendance.pagination")
+public class PaginationProperties {
+
+    // Tamaño de página cuando el cliente no envía "size"
+    private int defaultSize = 100;
+    // Tope para cualquier "size" solicitado
+    private int maxSize = 500;
+    // Filas por consulta en los endpoints /stream (NDJSON y SSE) y en los listados sin paginar, que
+    // recorren todas las páginas
+    private int streamPageSize = 500;
+    // Compatibilidad: con true, un listado sin "size" ni "cursor" devuelve todo el resultado en vez de la
+    // primera página. Desactivado por defecto; para leerlo todo están las variantes /stream
+    private boolean unpagedLists = false;
+
+    public int limit(Integer requested) {
+        return requested == null ? defaultSize : Math.min(requested, maxSize);
+    }
+}
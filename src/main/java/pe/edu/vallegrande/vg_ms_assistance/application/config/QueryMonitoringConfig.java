@@ -0,0 +1,73 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.server.WebFilter;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.monitoring.RepositoryQueryMonitor;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.monitoring.RequestQueryLog;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.monitoring.TimedConnectionFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * Instrumentación de la base de datos:
+ * <ul>
+ *   <li>Tiempo de espera por conexión de cada pool ({@code r2dbc.pool.acquire}); los gauges
+ *       r2dbc.pool.acquired/idle/pending los publica Spring Boot.</li>
+ *   <li>Registro de consultas lentas por método de repositorio ({@code repository.queries.slow}).</li>
+ *   <li>Aviso de posibles N+1: métodos invocados demasiadas veces dentro de una misma petición.</li>
+ * </ul>
+ */
+@Configuration
+@EnableConfigurationProperties(QueryMonitoringProperties.class)
+@ConditionalOnProperty(prefix = "attendance.query-monitor", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMonitoringConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionPoolTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ConnectionPool pool) {
+                    return new TimedConnectionFactory(pool, beanName, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryQueryMonitorPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                        ObjectProvider<QueryMonitoringProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repository) -> proxyFactory.addAdvice(new RepositoryQueryMonitor(
+                                    repository.getRepositoryInterface().getSimpleName(),
+                                    properties.getObject().getSlowThreshold(),
+                                    meterRegistry.getObject()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public WebFilter requestQueryLogWebFilter(QueryMonitoringProperties properties) {
+        return (exchange, chain) -> Mono.defer(() -> {
+            RequestQueryLog queries = new RequestQueryLog();
+            return chain.filter(exchange)
+                    .contextWrite(queries::addTo)
+                    .doFinally(signal -> queries.reportRepeated(properties.getRepeatedQueryThreshold(),
+                            exchange.getRequest().getMethod() + " " + exchange.getRequest().getPath()));
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "attendance.query-monitor")
+public class QueryMonitoringProperties {
+
+    private boolean enabled = true;
+
+    // Invocaciones de repositorio que tarden esto o más se registran como consultas lentas
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    // Veces que un mismo método puede invocarse en una petición antes de avisar de un posible N+1
+    private int repeatedQueryThreshold = 20;
+}
@@ -0,0 +1,70 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.web.server.WebFilter;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.routing.ReadWriteRouting;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.routing.ReadWriteRoutingConnectionFactory;
+
+/**
+ * Pool de la base principal (spring.r2dbc), pool de la réplica de solo lectura (attendance.replica)
+ * y la ConnectionFactory que reparte entre ambos. Al definir estos beans Spring Boot deja de crear
+ * su propio pool, por eso el de la principal se arma aquí con las mismas propiedades.
+ */
+@Configuration
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+@ConditionalOnProperty(prefix = "attendance.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool primaryConnectionFactory(R2dbcProperties properties) {
+        R2dbcProperties.Pool pool = properties.getPool();
+        ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("primary")
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool replicaConnectionFactory(R2dbcProperties properties, ReadReplicaProperties replica) {
+        ReadReplicaProperties.Pool pool = replica.getPool();
+        ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(replica.getUrl())
+                .username(replica.getUsername() != null ? replica.getUsername() : properties.getUsername())
+                .password(replica.getPassword() != null ? replica.getPassword() : properties.getPassword())
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("replica")
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build());
+    }
+
+    @Bean
+    @Primary
+    public ConnectionFactory connectionFactory(@Qualifier("primaryConnectionFactory") ConnectionFactory primaryConnectionFactory,
+                                               @Qualifier("replicaConnectionFactory") ConnectionFactory replicaConnectionFactory) {
+        return new ReadWriteRoutingConnectionFactory(primaryConnectionFactory, replicaConnectionFactory);
+    }
+
+    // Cada petición lleva su propio estado de enrutamiento (lecturas de la propia escritura)
+    @Bean
+    public WebFilter readYourWritesWebFilter() {
+        return (exchange, chain) -> chain.filter(exchange).contextWrite(ReadWriteRouting::withRequestState);
+    }
+}
@@ -0,0 +1,29 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "attendance.replica")
+public class ReadReplicaProperties {
+
+    // Sin réplica todas las consultas usan el pool de spring.r2dbc
+    private boolean enabled = false;
+
+    private String url;
+
+    // Si no se indican se usan las credenciales de spring.r2dbc
+    private String username;
+    private String password;
+
+    private Pool pool = new Pool();
+
+    @Data
+    public static class Pool {
+        private int initialSize = 5;
+        private int maxSize = 20;
+        private Duration maxIdleTime = Duration.ofMinutes(30);
+    }
+}
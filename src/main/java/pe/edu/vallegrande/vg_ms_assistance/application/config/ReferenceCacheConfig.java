@@ -0,0 +1,30 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.cache.ReferenceDataCache;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.ClassroomDTO;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.InstitutionDTO;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.StudentDTO;
+
+@Configuration
+@EnableConfigurationProperties(ReferenceCacheProperties.class)
+public class ReferenceCacheConfig {
+
+    @Bean
+    public ReferenceDataCache<StudentDTO> studentCache(ReferenceCacheProperties properties, MeterRegistry meterRegistry) {
+        return new ReferenceDataCache<>("students", properties.getStudents(), meterRegistry);
+    }
+
+    @Bean
+    public ReferenceDataCache<ClassroomDTO> classroomCache(ReferenceCacheProperties properties, MeterRegistry meterRegistry) {
+        return new ReferenceDataCache<>("classrooms", properties.getClassrooms(), meterRegistry);
+    }
+
+    @Bean
+    public ReferenceDataCache<InstitutionDTO> institutionCache(ReferenceCacheProperties properties, MeterRegistry meterRegistry) {
+        return new ReferenceDataCache<>("institutions", properties.getInstitutions(), meterRegistry);
+    }
+}
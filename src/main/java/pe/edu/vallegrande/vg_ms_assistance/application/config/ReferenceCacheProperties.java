@@ -0,0 +1,24 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "external.cache")
+public class ReferenceCacheProperties {
+
+    private Spec students = new Spec();
+    private Spec classrooms = new Spec();
+    private Spec institutions = new Spec();
+
+    @Data
+    public static class Spec {
+        // Tiempo de vida de un nombre encontrado
+        private Duration ttl = Duration.ofMinutes(30);
+        // Tiempo de vida de un ID que el servicio remoto no encontró
+        private Duration negativeTtl = Duration.ofMinutes(1);
+        private long maximumSize = 10_000;
+    }
+}
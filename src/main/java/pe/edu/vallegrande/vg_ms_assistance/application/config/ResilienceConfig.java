@@ -0,0 +1,62 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.client.DownstreamGuard;
+
+/**
+ * Circuit breaker y bulkhead por microservicio externo (configurados en resilience4j.* del application.yml);
+ * el deadline y el hedging de las consultas por ID se configuran en external.services.<servicio>.*.
+ * Resilience4j ya publica el estado y las llamadas rechazadas por el circuito; aquí se añaden contadores
+ * de transiciones de estado y de rechazos del bulkhead.
+ */
+@Slf4j
+@Configuration
+public class ResilienceConfig {
+
+    public static final String STUDENT_SERVICE = "student-service";
+    public static final String INSTITUTION_SERVICE = "institution-service";
+
+    @Bean
+    public DownstreamGuard studentServiceGuard(CircuitBreakerRegistry circuitBreakerRegistry,
+                                               BulkheadRegistry bulkheadRegistry,
+                                               ExternalServicesProperties properties,
+                                               MeterRegistry meterRegistry) {
+        return guard(STUDENT_SERVICE, properties.getStudent(), circuitBreakerRegistry, bulkheadRegistry, meterRegistry);
+    }
+
+    @Bean
+    public DownstreamGuard institutionServiceGuard(CircuitBreakerRegistry circuitBreakerRegistry,
+                                                   BulkheadRegistry bulkheadRegistry,
+                                                   ExternalServicesProperties properties,
+                                                   MeterRegistry meterRegistry) {
+        return guard(INSTITUTION_SERVICE, properties.getInstitution(), circuitBreakerRegistry, bulkheadRegistry, meterRegistry);
+    }
+
+    private DownstreamGuard guard(String name,
+                                  ExternalServicesProperties.Service service,
+                                  CircuitBreakerRegistry circuitBreakerRegistry,
+                                  BulkheadRegistry bulkheadRegistry,
+                                  MeterRegistry meterRegistry) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(name);
+
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            log.warn("Circuit breaker {} changed state: {}", name, event.getStateTransition());
+            meterRegistry.counter("downstream.circuitbreaker.transitions",
+                    "name", name,
+                    "from", event.getStateTransition().getFromState().name(),
+                    "to", event.getStateTransition().getToState().name()).increment();
+        });
+        bulkhead.getEventPublisher().onCallRejected(event ->
+                meterRegistry.counter("downstream.bulkhead.rejected", "name", name).increment());
+
+        return new DownstreamGuard(name, circuitBreaker, bulkhead, service, meterRegistry);
+    }
+}
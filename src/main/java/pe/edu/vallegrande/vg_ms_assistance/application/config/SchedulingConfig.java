@@ -0,0 +1,9 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
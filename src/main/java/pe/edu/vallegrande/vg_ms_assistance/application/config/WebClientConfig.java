@@ -1,14 +1,76 @@
 package pe.edu.vallegrande.vg_ms_assistance.application.config;
 
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+/**
+ * Un WebClient ya construido por cada microservicio externo, cada uno con su propio pool de conexiones.
+ * Las métricas del pool se publican como {@code reactor.netty.connection.provider.*} con el tag {@code name}.
+ */
 @Configuration
+@EnableConfigurationProperties(ExternalServicesProperties.class)
 public class WebClientConfig {
-    
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider studentConnectionProvider(ExternalServicesProperties properties) {
+        return connectionProvider("student-service", properties.getStudent());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider institutionConnectionProvider(ExternalServicesProperties properties) {
+        return connectionProvider("institution-service", properties.getInstitution());
+    }
+
+    @Bean
+    public WebClient studentWebClient(WebClient.Builder webClientBuilder,
+                                      @Qualifier("studentConnectionProvider") ConnectionProvider connectionProvider,
+                                      ExternalServicesProperties properties) {
+        return webClient(webClientBuilder, connectionProvider, properties.getStudent());
+    }
+
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public WebClient institutionWebClient(WebClient.Builder webClientBuilder,
+                                          @Qualifier("institutionConnectionProvider") ConnectionProvider connectionProvider,
+                                          ExternalServicesProperties properties) {
+        return webClient(webClientBuilder, connectionProvider, properties.getInstitution());
+    }
+
+    private ConnectionProvider connectionProvider(String name, ExternalServicesProperties.Service service) {
+        return ConnectionProvider.builder(name)
+                .maxConnections(service.getMaxConnections())
+                .pendingAcquireMaxCount(service.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(service.getPendingAcquireTimeout())
+                .maxIdleTime(service.getMaxIdleTime())
+                .maxLifeTime(service.getMaxLifeTime())
+                .evictInBackground(service.getEvictInBackground())
+                .metrics(true)
+                .build();
+    }
+
+    private WebClient webClient(WebClient.Builder webClientBuilder,
+                                ConnectionProvider connectionProvider,
+                                ExternalServicesProperties.Service service) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) service.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(service.getResponseTimeout())
+                .keepAlive(true);
+
+        if (service.isH2c()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+
+        return webClientBuilder.clone()
+                .baseUrl(service.getUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
     }
 }
@@ -1,9 +1,20 @@
 package pe.edu.vallegrande.vg_ms_assistance.application.service;
 
+import pe.edu.vallegrande.vg_ms_assistance.application.service.analytics.DashboardGrouping;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.enrichment.EnrichmentOptions;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.pagination.CursorPage;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.pagination.CursorRequest;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.pagination.PageCursor;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.stats.StatsGranularity;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.request.AttendanceImportRow;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.request.AttendanceRequest;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.request.JustificationRequest;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.AttendanceImportResponse;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.AttendanceResponse;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.AttendanceStatsResponse;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.GroupAttendanceStatsResponse;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.InstitutionDashboardResponse;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.StudentAttendanceStatsResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -14,22 +25,42 @@ public interface AttendanceService {
     
     Mono<AttendanceResponse> createAttendance(AttendanceRequest request);
     
-    Mono<AttendanceResponse> getAttendanceById(UUID id);
+    Mono<AttendanceResponse> getAttendanceById(UUID id, EnrichmentOptions options);
     
-    Flux<AttendanceResponse> getAllAttendances();
+    Mono<CursorPage<AttendanceResponse>> getAllAttendances(CursorRequest page, EnrichmentOptions options);
     
-    Flux<AttendanceResponse> getAttendancesByStudent(String studentId);
+    Mono<CursorPage<AttendanceResponse>> getAttendancesByStudent(String studentId, CursorRequest page, EnrichmentOptions options);
     
-    Flux<AttendanceResponse> getAttendancesByClassroom(String classroomId);
+    Mono<CursorPage<AttendanceResponse>> getAttendancesByClassroom(String classroomId, CursorRequest page, EnrichmentOptions options);
     
-    Flux<AttendanceResponse> getAttendancesByInstitution(String institutionId);
+    Mono<CursorPage<AttendanceResponse>> getAttendancesByInstitution(String institutionId, CursorRequest page, EnrichmentOptions options);
     
-    Flux<AttendanceResponse> getAttendancesByDate(LocalDate date);
+    Mono<CursorPage<AttendanceResponse>> getAttendancesByDate(LocalDate date, CursorRequest page, EnrichmentOptions options);
     
-    Flux<AttendanceResponse> getAttendancesByClassroomAndDate(String classroomId, LocalDate date);
+    Mono<CursorPage<AttendanceResponse>> getAttendancesByClassroomAndDate(
+            String classroomId, LocalDate date, CursorRequest page, EnrichmentOptions options);
     
-    Flux<AttendanceResponse> getAttendancesByStudentAndDateRange(
-            String studentId, LocalDate startDate, LocalDate endDate);
+    Mono<CursorPage<AttendanceResponse>> getAttendancesByStudentAndDateRange(
+            String studentId, LocalDate startDate, LocalDate endDate, CursorRequest page, EnrichmentOptions options);
+    
+    Flux<AttendanceResponse> streamAllAttendances(PageCursor after, EnrichmentOptions options);
+    
+    Flux<AttendanceResponse> streamAttendancesByStudent(String studentId, PageCursor after, EnrichmentOptions options);
+    
+    Flux<AttendanceResponse> streamAttendancesByClassroom(String classroomId, PageCursor after, EnrichmentOptions options);
+    
+    Flux<AttendanceResponse> streamAttendancesByInstitution(String institutionId, PageCursor after, EnrichmentOptions options);
+    
+    Flux<AttendanceResponse> streamAttendancesByDate(LocalDate date, PageCursor after, EnrichmentOptions options);
+    
+    Flux<AttendanceResponse> streamAttendancesByClassroomAndDate(
+            String classroomId, LocalDate date, PageCursor after, EnrichmentOptions options);
+    
+    Flux<AttendanceResponse> streamAttendancesByStudentAndDateRange(
+            String studentId, LocalDate startDate, LocalDate endDate, PageCursor after, EnrichmentOptions options);
+    
+    Flux<AttendanceResponse> exportAttendancesByInstitution(
+            String institutionId, LocalDate startDate, LocalDate endDate, EnrichmentOptions options);
     
     Mono<AttendanceResponse> updateAttendance(UUID id, pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.request.UpdateAttendanceRequest request);
     
@@ -40,6 +71,18 @@ public interface AttendanceService {
     Mono<AttendanceStatsResponse> getAttendanceStats(
             String studentId, LocalDate startDate, LocalDate endDate);
     
+    Flux<StudentAttendanceStatsResponse> getStudentStatsByClassroom(
+            String classroomId, LocalDate startDate, LocalDate endDate);
+    
+    Mono<GroupAttendanceStatsResponse> getClassroomStats(
+            String classroomId, LocalDate startDate, LocalDate endDate, StatsGranularity groupBy);
+    
+    Mono<GroupAttendanceStatsResponse> getInstitutionStats(
+            String institutionId, LocalDate startDate, LocalDate endDate, StatsGranularity groupBy);
+    
+    Mono<InstitutionDashboardResponse> getInstitutionDashboard(
+            String institutionId, LocalDate startDate, LocalDate endDate, DashboardGrouping groupBy);
+    
     Flux<pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.ExtendedReferenceDTO> getAllStudents();
     
     Flux<pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.ExtendedReferenceDTO> getAllClassrooms();
@@ -49,6 +92,8 @@ public interface AttendanceService {
     Mono<pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.BulkAttendanceResponse> createBulkAttendance(
             pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.request.BulkAttendanceRequest request);
     
+    Mono<AttendanceImportResponse> importAttendances(Flux<AttendanceImportRow> rows);
+    
     Flux<pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.ExtendedReferenceDTO> getStudentsByInstitution(String institutionId);
     
     Flux<pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.ExtendedReferenceDTO> getClassroomsByInstitution(String institutionId);
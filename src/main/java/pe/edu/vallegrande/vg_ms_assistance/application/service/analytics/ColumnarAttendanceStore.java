@@ -0,0 +1,118 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.analytics;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import pe.edu.vallegrande.vg_ms_assistance.application.config.AttendanceAnalyticsProperties;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.change.AttendanceChangeListener;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceColumnsRow;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.AttendanceRepository;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Almacén por columnas de los registros de asistencia para los tableros de institución.
+ * Cada institución se carga desde la base principal la primera vez que se consulta, solo con los registros
+ * de los últimos {@code academic-years} años (la consulta descarta las particiones anteriores), y queda en
+ * una caché acotada por cantidad total de filas. Los rangos que empiezan antes de esa ventana, y las
+ * instituciones que no caben, se resuelven con SQL ({@link #covers}, y {@link #aggregate} vacío).
+ * Las escrituras confirmadas se aplican a las instituciones en memoria o cargándose (por ID, así que
+ * aplicar una fila que la carga ya leyó no la duplica).
+ */
+@Slf4j
+@Component
+public class ColumnarAttendanceStore implements AttendanceChangeListener {
+
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceAnalyticsProperties properties;
+    private final AsyncCache<String, InstitutionColumns> cache;
+
+    public ColumnarAttendanceStore(AttendanceRepository attendanceRepository,
+                                   AttendanceAnalyticsProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.attendanceRepository = attendanceRepository;
+        this.properties = properties;
+        // El peso se calcula al terminar la carga; lo que crece después por escrituras se corrige al recargar
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxRows())
+                .weigher((String institutionId, InstitutionColumns columns) -> columns.size())
+                .expireAfterWrite(properties.getReloadAfter())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "attendance-columns");
+    }
+
+    // Indica si el rango empieza dentro de la ventana cargada en memoria o debe ir a SQL
+    public boolean covers(LocalDate startDate) {
+        return !startDate.isBefore(windowStart());
+    }
+
+    // Vacío si la institución tiene más filas que max-rows en la ventana: se calcula con SQL.
+    // La agregación usa varios núcleos y bloquea al hilo que la invoca, así que no corre en el event loop
+    public Mono<List<GroupCounts>> aggregate(String institutionId, LocalDate startDate, LocalDate endDate,
+                                             DashboardGrouping grouping) {
+        return columns(institutionId)
+                .publishOn(Schedulers.boundedElastic())
+                .map(columns -> columns.aggregate(startDate, endDate, grouping, properties.getChunkSize()));
+    }
+
+    @Override
+    public void recordsSaved(Collection<AttendanceRecord> records) {
+        LocalDate windowStart = windowStart();
+        records.stream()
+                .filter(record -> !record.getAttendanceDate().isBefore(windowStart))
+                .forEach(record -> apply(record.getInstitutionId(), columns -> columns.upsert(AttendanceColumnsRow.of(record))));
+    }
+
+    @Override
+    public void recordRemoved(AttendanceRecord record) {
+        apply(record.getInstitutionId(), columns -> columns.remove(record.getId()));
+    }
+
+    private void apply(String institutionId, Consumer<InstitutionColumns> change) {
+        CompletableFuture<InstitutionColumns> cached = cache.getIfPresent(institutionId);
+        if (cached != null) {
+            cached.thenAccept(change);
+        }
+    }
+
+    private Mono<InstitutionColumns> columns(String institutionId) {
+        return Mono.fromFuture(() -> cache.get(institutionId, (key, executor) -> load(key).toFuture()), true);
+    }
+
+    // 1 de enero del primer año académico de la ventana
+    private LocalDate windowStart() {
+        return LocalDate.now().withDayOfYear(1).minusYears(properties.getAcademicYears() - 1L);
+    }
+
+    private Mono<InstitutionColumns> load(String institutionId) {
+        LocalDate since = windowStart();
+        return attendanceRepository.countByInstitutionIdAndAttendanceDateGreaterThanEqual(institutionId, since)
+                .flatMap(count -> {
+                    if (count > properties.getMaxRows()) {
+                        log.info("Institution {} has {} attendance rows since {}, over the column store limit; using SQL",
+                                institutionId, count, since);
+                        return Mono.empty();
+                    }
+                    InstitutionColumns columns = new InstitutionColumns(Math.toIntExact(count));
+                    long start = System.nanoTime();
+                    return attendanceRepository.findColumnsByInstitutionIdSince(institutionId, since)
+                            .doOnNext(columns::upsert)
+                            .then(Mono.fromSupplier(() -> {
+                                log.info("Loaded {} attendance rows of institution {} into the column store in {} ms",
+                                        columns.size(), institutionId, (System.nanoTime() - start) / 1_000_000);
+                                return columns;
+                            }));
+                });
+    }
+}
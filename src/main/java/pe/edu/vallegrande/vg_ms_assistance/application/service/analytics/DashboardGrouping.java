@@ -0,0 +1,23 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.analytics;
+
+import java.util.Locale;
+
+/**
+ * Agrupación del tablero de institución: por aula, por estudiante o por día.
+ */
+public enum DashboardGrouping {
+    CLASSROOM,
+    STUDENT,
+    DAY;
+
+    public static DashboardGrouping of(String value) {
+        if (value == null || value.isBlank()) {
+            return CLASSROOM;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor no válido para groupBy: " + value + ". Valores permitidos: classroom, student, day");
+        }
+    }
+}
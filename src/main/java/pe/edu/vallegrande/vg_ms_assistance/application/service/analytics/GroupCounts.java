@@ -0,0 +1,10 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.analytics;
+
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceStatusCounts;
+
+/**
+ * Resultado de un grupo del tablero: conteos por estado y promedio de llegada en minutos desde la
+ * medianoche (null si ningún registro del grupo tiene hora de llegada).
+ */
+public record GroupCounts(String key, AttendanceStatusCounts counts, Integer averageArrivalMinute) {
+}
@@ -0,0 +1,34 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codifica cada ID distinto como un entero consecutivo (0, 1, 2...) para guardarlo en un int[].
+ * No es thread-safe: lo protege el lock de {@link InstitutionColumns}.
+ */
+final class IdDictionary {
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    int encode(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    String decode(int code) {
+        return values.get(code);
+    }
+
+    int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,265 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.analytics;
+
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceColumnsRow;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceStatusCounts;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Registros de asistencia de una institución guardados por columnas en arreglos primitivos: día como
+ * epoch-day, estudiante y aula codificados con {@link IdDictionary}, estado como byte (ordinal) y hora de
+ * llegada en minutos. El ID se guarda en dos long[] con un índice hash abierto para ubicar la fila en
+ * las actualizaciones. Las filas borradas quedan marcadas y no se compactan hasta la siguiente carga.
+ * Las consultas recorren los arreglos por bloques en paralelo, con un acumulador por bloque y sin crear
+ * objetos por fila.
+ */
+final class InstitutionColumns {
+
+    private static final AttendanceStatus[] STATUSES = AttendanceStatus.values();
+    private static final byte REMOVED = -1;
+    private static final short NO_ARRIVAL = -1;
+    // Por grupo: un contador por estado, suma de minutos de llegada y cantidad de llegadas
+    private static final int ARRIVAL_SUM = STATUSES.length;
+    private static final int ARRIVAL_COUNT = STATUSES.length + 1;
+    private static final int SLOTS = STATUSES.length + 2;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IdDictionary students = new IdDictionary();
+    private final IdDictionary classrooms = new IdDictionary();
+
+    private int size;
+    private long[] idHigh;
+    private long[] idLow;
+    private int[] epochDay;
+    private int[] studentCode;
+    private int[] classroomCode;
+    private byte[] status;
+    private short[] arrivalMinute;
+    private int minDay = Integer.MAX_VALUE;
+    private int maxDay = Integer.MIN_VALUE;
+
+    // Índice hash abierto: fila + 1 (0 = libre)
+    private int[] slots;
+
+    InstitutionColumns(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        idHigh = new long[capacity];
+        idLow = new long[capacity];
+        epochDay = new int[capacity];
+        studentCode = new int[capacity];
+        classroomCode = new int[capacity];
+        status = new byte[capacity];
+        arrivalMinute = new short[capacity];
+        slots = new int[tableSizeFor(capacity)];
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Inserta el registro o, si ya existe su ID, reemplaza sus valores
+    void upsert(AttendanceColumnsRow record) {
+        lock.writeLock().lock();
+        try {
+            int row = find(record.getId());
+            if (row < 0) {
+                row = append(record.getId());
+            }
+            int day = (int) record.getAttendanceDate().toEpochDay();
+            epochDay[row] = day;
+            studentCode[row] = students.encode(record.getStudentId());
+            classroomCode[row] = classrooms.encode(record.getClassroomId());
+            status[row] = (byte) record.getAttendanceStatus().ordinal();
+            arrivalMinute[row] = toMinutes(record.getArrivalTime());
+            minDay = Math.min(minDay, day);
+            maxDay = Math.max(maxDay, day);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            int row = find(id);
+            if (row >= 0) {
+                status[row] = REMOVED;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Conteos por grupo entre from y to (incluidos). Solo devuelve grupos con al menos un registro,
+     * ordenados por clave.
+     */
+    List<GroupCounts> aggregate(LocalDate from, LocalDate to, DashboardGrouping grouping, int chunkSize) {
+        lock.readLock().lock();
+        try {
+            int fromDay = Math.max((int) from.toEpochDay(), minDay);
+            int toDay = Math.min((int) to.toEpochDay(), maxDay);
+            if (size == 0 || fromDay > toDay) {
+                return List.of();
+            }
+            int[] keys = switch (grouping) {
+                case CLASSROOM -> classroomCode;
+                case STUDENT -> studentCode;
+                case DAY -> epochDay;
+            };
+            int keyOffset = grouping == DashboardGrouping.DAY ? fromDay : 0;
+            int groups = switch (grouping) {
+                case CLASSROOM -> classrooms.size();
+                case STUDENT -> students.size();
+                case DAY -> toDay - fromDay + 1;
+            };
+            int rows = size;
+            int chunks = (rows + chunkSize - 1) / chunkSize;
+
+            long[] totals = IntStream.range(0, chunks)
+                    .parallel()
+                    .mapToObj(chunk -> scan(chunk * chunkSize, Math.min(rows, (chunk + 1) * chunkSize),
+                            fromDay, toDay, keys, keyOffset, groups))
+                    .reduce(InstitutionColumns::merge)
+                    .orElseGet(() -> new long[groups * SLOTS]);
+
+            return toGroups(totals, groups, grouping, fromDay);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] scan(int start, int end, int fromDay, int toDay, int[] keys, int keyOffset, int groups) {
+        long[] accumulator = new long[groups * SLOTS];
+        for (int row = start; row < end; row++) {
+            int day = epochDay[row];
+            byte rowStatus = status[row];
+            if (day < fromDay || day > toDay || rowStatus == REMOVED) {
+                continue;
+            }
+            int base = (keys[row] - keyOffset) * SLOTS;
+            accumulator[base + rowStatus]++;
+            short arrival = arrivalMinute[row];
+            if (arrival != NO_ARRIVAL) {
+                accumulator[base + ARRIVAL_SUM] += arrival;
+                accumulator[base + ARRIVAL_COUNT]++;
+            }
+        }
+        return accumulator;
+    }
+
+    private static long[] merge(long[] left, long[] right) {
+        for (int i = 0; i < left.length; i++) {
+            left[i] += right[i];
+        }
+        return left;
+    }
+
+    private List<GroupCounts> toGroups(long[] totals, int groups, DashboardGrouping grouping, int fromDay) {
+        List<GroupCounts> result = new ArrayList<>();
+        for (int group = 0; group < groups; group++) {
+            int base = group * SLOTS;
+            long total = 0;
+            for (int s = 0; s < STATUSES.length; s++) {
+                total += totals[base + s];
+            }
+            if (total == 0) {
+                continue;
+            }
+            String key = switch (grouping) {
+                case CLASSROOM -> classrooms.decode(group);
+                case STUDENT -> students.decode(group);
+                case DAY -> LocalDate.ofEpochDay(fromDay + group).toString();
+            };
+            long arrivals = totals[base + ARRIVAL_COUNT];
+            result.add(new GroupCounts(key, AttendanceStatusCounts.builder()
+                    .totalRecords(total)
+                    .presentCount(totals[base + AttendanceStatus.PRESENTE.ordinal()])
+                    .absentCount(totals[base + AttendanceStatus.AUSENTE.ordinal()])
+                    .lateCount(totals[base + AttendanceStatus.TARDANZA.ordinal()])
+                    .justifiedCount(totals[base + AttendanceStatus.JUSTIFICADO.ordinal()])
+                    .permissionCount(totals[base + AttendanceStatus.PERMISO.ordinal()])
+                    .build(),
+                    arrivals > 0 ? (int) (totals[base + ARRIVAL_SUM] / arrivals) : null));
+        }
+        if (grouping != DashboardGrouping.DAY) {
+            result.sort((a, b) -> a.key().compareTo(b.key()));
+        }
+        return result;
+    }
+
+    private int append(UUID id) {
+        if (size == idHigh.length) {
+            grow();
+        }
+        int row = size++;
+        idHigh[row] = id.getMostSignificantBits();
+        idLow[row] = id.getLeastSignificantBits();
+        insertSlot(row);
+        return row;
+    }
+
+    private int find(UUID id) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        int mask = slots.length - 1;
+        for (int slot = hash(high, low) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int row = slots[slot] - 1;
+            if (idHigh[row] == high && idLow[row] == low) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private void insertSlot(int row) {
+        int mask = slots.length - 1;
+        int slot = hash(idHigh[row], idLow[row]) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = row + 1;
+    }
+
+    private void grow() {
+        int capacity = idHigh.length + (idHigh.length >> 1);
+        idHigh = Arrays.copyOf(idHigh, capacity);
+        idLow = Arrays.copyOf(idLow, capacity);
+        epochDay = Arrays.copyOf(epochDay, capacity);
+        studentCode = Arrays.copyOf(studentCode, capacity);
+        classroomCode = Arrays.copyOf(classroomCode, capacity);
+        status = Arrays.copyOf(status, capacity);
+        arrivalMinute = Arrays.copyOf(arrivalMinute, capacity);
+        slots = new int[tableSizeFor(capacity)];
+        for (int row = 0; row < size; row++) {
+            insertSlot(row);
+        }
+    }
+
+    // Potencia de dos con al menos el doble de espacio que filas (factor de carga <= 0.5)
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    private static int hash(long high, long low) {
+        long mixed = (high ^ low) * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    private static short toMinutes(LocalTime time) {
+        return time == null ? NO_ARRIVAL : (short) (time.getHour() * 60 + time.getMinute());
+    }
+}
@@ -0,0 +1,118 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.bitmap;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.change.AttendanceChangeListener;
+import pe.edu.vallegrande.vg_ms_assistance.application.config.AttendanceBitmapProperties;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceStatusCounts;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.AttendanceRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bitmaps de asistencia por estudiante y año en una caché acotada. Un bitmap se carga de la base
+ * principal la primera vez que se pide (una sola carga por clave aunque haya consultas concurrentes).
+ * Las escrituras lo actualizan al confirmarse su transacción ({@link AttendanceChangeListener}), y solo si
+ * ya está en memoria o cargándose: marcar un día es idempotente, así que da igual si la carga leyó la
+ * fila antes o después del commit. Las escrituras de otras instancias no llegan aquí: cada bitmap se descarta
+ * pasado {@code reload-after} y se vuelve a cargar en la siguiente consulta.
+ */
+@Component
+public class AttendanceBitmapStore implements AttendanceChangeListener {
+
+    private static final AttendanceStatus[] STATUSES = AttendanceStatus.values();
+
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceBitmapProperties properties;
+    private final AsyncCache<Key, StudentAttendanceBitmap> cache;
+
+    public AttendanceBitmapStore(AttendanceRepository attendanceRepository,
+                                 AttendanceBitmapProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.attendanceRepository = attendanceRepository;
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getReloadAfter())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "attendance-bitmaps");
+    }
+
+    // Indica si el rango puede resolverse con bitmaps o debe ir a SQL
+    public boolean covers(LocalDate startDate, LocalDate endDate) {
+        return properties.isEnabled()
+                && !startDate.isAfter(endDate)
+                && endDate.getYear() - startDate.getYear() < properties.getMaxRangeYears();
+    }
+
+    public Mono<AttendanceStatusCounts> counts(String studentId, LocalDate startDate, LocalDate endDate) {
+        return Flux.range(startDate.getYear(), endDate.getYear() - startDate.getYear() + 1)
+                .concatMap(year -> bitmap(new Key(studentId, year)))
+                .reduceWith(() -> new long[STATUSES.length], (counts, bitmap) -> {
+                    bitmap.addCounts(startDate, endDate, counts);
+                    return counts;
+                })
+                .map(AttendanceBitmapStore::toStatusCounts);
+    }
+
+    @Override
+    public void recordsSaved(Collection<AttendanceRecord> records) {
+        records.forEach(record -> apply(record, record.getAttendanceStatus()));
+    }
+
+    @Override
+    public void recordRemoved(AttendanceRecord record) {
+        apply(record, null);
+    }
+
+    private void apply(AttendanceRecord record, AttendanceStatus status) {
+        LocalDate date = record.getAttendanceDate();
+        CompletableFuture<StudentAttendanceBitmap> cached =
+                cache.getIfPresent(new Key(record.getStudentId(), date.getYear()));
+        if (cached != null) {
+            cached.thenAccept(bitmap -> bitmap.set(date, status));
+        }
+    }
+
+    // Se lee de la base principal (sin marca de solo lectura): un bitmap cargado desde una réplica
+    // atrasada quedaría desfasado mientras siga en memoria
+    private Mono<StudentAttendanceBitmap> bitmap(Key key) {
+        return Mono.fromFuture(() -> cache.get(key, (k, executor) -> load(k).toFuture()), true);
+    }
+
+    private Mono<StudentAttendanceBitmap> load(Key key) {
+        StudentAttendanceBitmap bitmap = new StudentAttendanceBitmap(key.year());
+        return attendanceRepository.findStatusesByStudentIdAndDateRange(
+                        key.studentId(), LocalDate.of(key.year(), 1, 1), LocalDate.of(key.year(), 12, 31))
+                .doOnNext(record -> bitmap.set(record.getAttendanceDate(), record.getAttendanceStatus()))
+                .then(Mono.just(bitmap));
+    }
+
+    private static AttendanceStatusCounts toStatusCounts(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return AttendanceStatusCounts.builder()
+                .totalRecords(total)
+                .presentCount(counts[AttendanceStatus.PRESENTE.ordinal()])
+                .absentCount(counts[AttendanceStatus.AUSENTE.ordinal()])
+                .lateCount(counts[AttendanceStatus.TARDANZA.ordinal()])
+                .justifiedCount(counts[AttendanceStatus.JUSTIFICADO.ordinal()])
+                .permissionCount(counts[AttendanceStatus.PERMISO.ordinal()])
+                .build();
+    }
+
+    private record Key(String studentId, int year) {
+    }
+}
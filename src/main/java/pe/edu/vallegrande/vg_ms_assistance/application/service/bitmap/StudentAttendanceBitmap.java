@@ -0,0 +1,79 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.bitmap;
+
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Asistencia de un estudiante en un año, un bit por día y por estado: cada estado es un plano de
+ * 366 bits (6 longs) y un día tiene a lo sumo un bit encendido entre todos los planos. Los conteos
+ * de un rango son Long.bitCount sobre unas pocas palabras enmascaradas (240 bytes por estudiante y año).
+ */
+public final class StudentAttendanceBitmap {
+
+    private static final AttendanceStatus[] STATUSES = AttendanceStatus.values();
+    private static final int WORDS_PER_PLANE = 6;
+
+    private final int year;
+    private final long[] planes = new long[STATUSES.length * WORDS_PER_PLANE];
+
+    public StudentAttendanceBitmap(int year) {
+        this.year = year;
+    }
+
+    public int year() {
+        return year;
+    }
+
+    // Deja el día con el estado indicado (o sin registro si status es null)
+    public synchronized void set(LocalDate date, AttendanceStatus status) {
+        int day = dayIndex(date);
+        long bit = 1L << day;
+        int word = day >>> 6;
+        for (int plane = 0; plane < STATUSES.length; plane++) {
+            planes[plane * WORDS_PER_PLANE + word] &= ~bit;
+        }
+        if (status != null) {
+            planes[status.ordinal() * WORDS_PER_PLANE + word] |= bit;
+        }
+    }
+
+    public void clear(LocalDate date) {
+        set(date, null);
+    }
+
+    /**
+     * Suma a {@code counts} (indexado por ordinal del estado) los días de cada estado entre from y to,
+     * ambos incluidos. El rango se recorta al año del bitmap.
+     */
+    public synchronized void addCounts(LocalDate from, LocalDate to, long[] counts) {
+        LocalDate start = from.getYear() < year ? LocalDate.of(year, 1, 1) : from;
+        LocalDate end = to.getYear() > year ? LocalDate.of(year, 12, 31) : to;
+        if (start.isAfter(end)) {
+            return;
+        }
+        int firstDay = dayIndex(start);
+        int lastDay = dayIndex(end);
+        int firstWord = firstDay >>> 6;
+        int lastWord = lastDay >>> 6;
+        for (int word = firstWord; word <= lastWord; word++) {
+            long mask = -1L;
+            if (word == firstWord) {
+                mask &= -1L << (firstDay & 63);
+            }
+            if (word == lastWord) {
+                mask &= -1L >>> (63 - (lastDay & 63));
+            }
+            for (int plane = 0; plane < STATUSES.length; plane++) {
+                counts[plane] += Long.bitCount(planes[plane * WORDS_PER_PLANE + word] & mask);
+            }
+        }
+    }
+
+    private int dayIndex(LocalDate date) {
+        if (date.getYear() != year) {
+            throw new IllegalArgumentException("Fecha " + date + " fuera del año " + year);
+        }
+        return date.getDayOfYear() - 1;
+    }
+}
@@ -0,0 +1,17 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.change;
+
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+
+import java.util.Collection;
+
+/**
+ * Estructuras en memoria derivadas de attendance_records que se actualizan tras cada escritura confirmada.
+ * Se invocan después del commit, de forma síncrona y sin acceso a la base de datos.
+ */
+public interface AttendanceChangeListener {
+
+    // Registros insertados o modificados (ya con ID)
+    void recordsSaved(Collection<AttendanceRecord> records);
+
+    void recordRemoved(AttendanceRecord record);
+}
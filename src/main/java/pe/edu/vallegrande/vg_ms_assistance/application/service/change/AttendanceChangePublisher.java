@@ -0,0 +1,64 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.change;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Avisa a los {@link AttendanceChangeListener} de cada escritura. Dentro de una transacción el aviso
+ * espera al commit y se descarta si hay rollback; fuera de ella se entrega de inmediato.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AttendanceChangePublisher {
+
+    private final List<AttendanceChangeListener> listeners;
+
+    public Mono<Void> recordSaved(AttendanceRecord record) {
+        return recordsSaved(List.of(record));
+    }
+
+    public Mono<Void> recordsSaved(Collection<AttendanceRecord> records) {
+        List<AttendanceRecord> saved = List.copyOf(records);
+        return afterCommit(listener -> listener.recordsSaved(saved));
+    }
+
+    public Mono<Void> recordRemoved(AttendanceRecord record) {
+        return afterCommit(listener -> listener.recordRemoved(record));
+    }
+
+    private Mono<Void> afterCommit(Consumer<AttendanceChangeListener> notification) {
+        Runnable action = () -> listeners.forEach(listener -> {
+            try {
+                notification.accept(listener);
+            } catch (RuntimeException e) {
+                log.error("Attendance change listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        });
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .flatMap(synchronization -> {
+                    if (!synchronization.isSynchronizationActive()) {
+                        return Mono.fromRunnable(action);
+                    }
+                    synchronization.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return Mono.fromRunnable(action);
+                        }
+                    });
+                    return Mono.<Void>empty();
+                })
+                .onErrorResume(NoTransactionException.class, error -> Mono.fromRunnable(action))
+                .then();
+    }
+}
@@ -0,0 +1,195 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.enrichment;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.enrichment.EnrichmentOptions.NameField;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceNames;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.client.InstitutionClient;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.client.StudentClient;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.ClassroomDTO;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.InstitutionDTO;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.StudentDTO;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.AttendanceResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple3;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Completa los nombres de estudiante, aula e institución de los registros de asistencia.
+ * Los nombres se guardan en el propio registro al crearlo ({@link #captureNames}); al leer solo se consultan
+ * los servicios remotos para los registros que aún no tienen esa copia. Los registros se agrupan en ventanas
+ * y cada ID distinto de la ventana se resuelve una sola vez.
+ */
+@Slf4j
+@Component
+public class AttendanceEnricher {
+
+    static final String STUDENT_PLACEHOLDER = "Nombre no disponible";
+    static final String CLASSROOM_PLACEHOLDER = "Aula no disponible";
+    static final String INSTITUTION_PLACEHOLDER = "Institución no disponible";
+
+    private final StudentClient studentClient;
+    private final InstitutionClient institutionClient;
+    private final int batchSize;
+    private final int concurrency;
+
+    public AttendanceEnricher(StudentClient studentClient,
+                              InstitutionClient institutionClient,
+                              @Value("${attendance.enrichment.batch-size:500}") int batchSize,
+                              @Value("${attendance.enrichment.concurrency:16}") int concurrency) {
+        this.studentClient = studentClient;
+        this.institutionClient = institutionClient;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+    }
+
+    public <T extends AttendanceNames> Mono<AttendanceResponse> enrich(T record,
+                                                                       Function<? super T, AttendanceResponse> mapper,
+                                                                       EnrichmentOptions options) {
+        return enrich(Flux.just(record), mapper, options).next();
+    }
+
+    public <T extends AttendanceNames> Flux<AttendanceResponse> enrich(Flux<T> records,
+                                                                       Function<? super T, AttendanceResponse> mapper,
+                                                                       EnrichmentOptions options) {
+        if (options.none()) {
+            return records.map(record -> withoutNames(mapper.apply(record)));
+        }
+        // Sin prefetch: el siguiente lote se junta recién cuando el cliente pide más, para respetar su
+        // contrapresión en los endpoints /stream y en la exportación
+        return records
+                .buffer(batchSize)
+                .concatMap(batch -> enrichBatch(batch, mapper, options), 0);
+    }
+
+    /**
+     * Copia en los registros los nombres actuales que aún no tengan. Si un servicio remoto no responde,
+     * el nombre queda en null para que la reconciliación lo complete más tarde.
+     */
+    public Mono<List<AttendanceRecord>> captureNames(List<AttendanceRecord> records) {
+        return resolveMissingNames(records)
+                .map(names -> {
+                    records.forEach(record -> {
+                        if (record.getStudentName() == null) {
+                            record.setStudentName(names.getT1().get(record.getStudentId()));
+                        }
+                        if (record.getClassroomName() == null) {
+                            record.setClassroomName(names.getT2().get(record.getClassroomId()));
+                        }
+                        if (record.getInstitutionName() == null) {
+                            record.setInstitutionName(names.getT3().get(record.getInstitutionId()));
+                        }
+                    });
+                    return records;
+                });
+    }
+
+    public Mono<AttendanceRecord> captureNames(AttendanceRecord record) {
+        return captureNames(List.of(record)).thenReturn(record);
+    }
+
+    public Mono<String> currentStudentName(String studentId) {
+        return studentClient.getStudentById(studentId).map(StudentDTO::getDisplayName);
+    }
+
+    public Mono<String> currentClassroomName(String classroomId) {
+        return institutionClient.getClassroomById(classroomId).map(ClassroomDTO::getDisplayName);
+    }
+
+    public Mono<String> currentInstitutionName(String institutionId) {
+        return institutionClient.getInstitutionById(institutionId).map(InstitutionDTO::getDisplayName);
+    }
+
+    private <T extends AttendanceNames> Flux<AttendanceResponse> enrichBatch(List<T> batch,
+                                                                             Function<? super T, AttendanceResponse> mapper,
+                                                                             EnrichmentOptions options) {
+        return resolveMissingNames(batch, options)
+                .flatMapMany(names -> Flux.fromIterable(batch)
+                        .map(record -> {
+                            AttendanceResponse response = mapper.apply(record);
+                            response.setStudentName(name(options, NameField.STUDENT, response.getStudentName(),
+                                    names.getT1(), record.getStudentId(), STUDENT_PLACEHOLDER));
+                            response.setClassroomName(name(options, NameField.CLASSROOM, response.getClassroomName(),
+                                    names.getT2(), record.getClassroomId(), CLASSROOM_PLACEHOLDER));
+                            response.setInstitutionName(name(options, NameField.INSTITUTION, response.getInstitutionName(),
+                                    names.getT3(), record.getInstitutionId(), INSTITUTION_PLACEHOLDER));
+                            return response;
+                        }));
+    }
+
+    private static String name(EnrichmentOptions options, NameField field, String snapshot,
+                               Map<String, String> resolved, String id, String placeholder) {
+        if (!options.includes(field)) {
+            return null;
+        }
+        if (snapshot != null && !options.refresh()) {
+            return snapshot;
+        }
+        return resolved.getOrDefault(id, snapshot != null ? snapshot : placeholder);
+    }
+
+    private static AttendanceResponse withoutNames(AttendanceResponse response) {
+        response.setStudentName(null);
+        response.setClassroomName(null);
+        response.setInstitutionName(null);
+        return response;
+    }
+
+    private Mono<Tuple3<Map<String, String>, Map<String, String>, Map<String, String>>> resolveMissingNames(
+            List<? extends AttendanceNames> batch) {
+        return resolveMissingNames(batch, EnrichmentOptions.DEFAULT);
+    }
+
+    private Mono<Tuple3<Map<String, String>, Map<String, String>, Map<String, String>>> resolveMissingNames(
+            List<? extends AttendanceNames> batch, EnrichmentOptions options) {
+        Set<String> studentIds = options.includes(NameField.STUDENT)
+                ? missing(batch, AttendanceNames::getStudentName, AttendanceNames::getStudentId, options)
+                : Set.of();
+        Set<String> classroomIds = options.includes(NameField.CLASSROOM)
+                ? missing(batch, AttendanceNames::getClassroomName, AttendanceNames::getClassroomId, options)
+                : Set.of();
+        Set<String> institutionIds = options.includes(NameField.INSTITUTION)
+                ? missing(batch, AttendanceNames::getInstitutionName, AttendanceNames::getInstitutionId, options)
+                : Set.of();
+
+        log.debug("[ENRICH] Batch of {} records: {} students, {} classrooms, {} institutions to resolve",
+                batch.size(), studentIds.size(), classroomIds.size(), institutionIds.size());
+
+        return Mono.zip(
+                resolveNames(studentIds, this::currentStudentName),
+                resolveNames(classroomIds, this::currentClassroomName),
+                resolveNames(institutionIds, this::currentInstitutionName));
+    }
+
+    private Mono<Map<String, String>> resolveNames(Set<String> ids, Function<String, Mono<String>> lookup) {
+        if (ids.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return Flux.fromIterable(ids)
+                .flatMap(id -> lookup.apply(id).map(name -> Map.entry(id, name)), concurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    // IDs distintos de los registros que todavía no tienen el nombre guardado (todos si se pide refrescar)
+    private static Set<String> missing(List<? extends AttendanceNames> batch,
+                                       Function<AttendanceNames, String> nameExtractor,
+                                       Function<AttendanceNames, String> idExtractor,
+                                       EnrichmentOptions options) {
+        Set<String> ids = new LinkedHashSet<>();
+        batch.stream()
+                .filter(record -> options.refresh() || nameExtractor.apply(record) == null)
+                .map(idExtractor)
+                .filter(Objects::nonNull)
+                .forEach(ids::add);
+        return ids;
+    }
+}
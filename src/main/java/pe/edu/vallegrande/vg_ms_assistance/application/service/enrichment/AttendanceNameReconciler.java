@@ -0,0 +1,105 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.enrichment;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.AttendanceRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Tarea programada que mantiene al día los nombres guardados en attendance_records.
+ * Recorre por lotes los IDs distintos con asistencias en los últimos {@code lookback} días (no toda la
+ * tabla), consulta el nombre vigente en los microservicios y actualiza, en una sola sentencia por lote, solo
+ * las filas de esos IDs dentro de la misma ventana cuyo nombre cambió o aún no existía. Las filas anteriores
+ * conservan el nombre con que se guardaron.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "attendance.snapshot.reconciler", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AttendanceNameReconciler {
+
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceEnricher attendanceEnricher;
+    private final int batchSize;
+    private final int concurrency;
+    private final Duration lookback;
+
+    public AttendanceNameReconciler(AttendanceRepository attendanceRepository,
+                                    AttendanceEnricher attendanceEnricher,
+                                    @Value("${attendance.snapshot.reconciler.batch-size:200}") int batchSize,
+                                    @Value("${attendance.enrichment.concurrency:16}") int concurrency,
+                                    @Value("${attendance.snapshot.reconciler.lookback:30d}") Duration lookback) {
+        this.attendanceRepository = attendanceRepository;
+        this.attendanceEnricher = attendanceEnricher;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.lookback = lookback;
+    }
+
+    @Scheduled(initialDelayString = "${attendance.snapshot.reconciler.initial-delay:PT5M}",
+               fixedDelayString = "${attendance.snapshot.reconciler.interval:PT1H}")
+    public Mono<Void> reconcile() {
+        return Mono.defer(() -> {
+                    LocalDate since = LocalDate.now().minusDays(lookback.toDays());
+                    return Mono.zip(
+                            reconcile("students", (afterId, limit) ->
+                                            attendanceRepository.findDistinctStudentIdsSince(since, afterId, limit),
+                                    attendanceEnricher::currentStudentName,
+                                    (ids, names) -> attendanceRepository.updateStudentNamesSince(since, ids, names)),
+                            reconcile("classrooms", (afterId, limit) ->
+                                            attendanceRepository.findDistinctClassroomIdsSince(since, afterId, limit),
+                                    attendanceEnricher::currentClassroomName,
+                                    (ids, names) -> attendanceRepository.updateClassroomNamesSince(since, ids, names)),
+                            reconcile("institutions", (afterId, limit) ->
+                                            attendanceRepository.findDistinctInstitutionIdsSince(since, afterId, limit),
+                                    attendanceEnricher::currentInstitutionName,
+                                    (ids, names) -> attendanceRepository.updateInstitutionNamesSince(since, ids, names)));
+                })
+                .doOnNext(updated -> log.info("Name snapshots reconciled: {} student rows, {} classroom rows, {} institution rows",
+                        updated.getT1(), updated.getT2(), updated.getT3()))
+                .doOnError(error -> log.error("Name snapshot reconciliation failed: {}", error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .then();
+    }
+
+    private Mono<Long> reconcile(String entity,
+                                 IdPage idsAfter,
+                                 Function<String, Mono<String>> currentName,
+                                 BiFunction<String[], String[], Mono<Long>> update) {
+        return idsAfter.fetch("", batchSize).collectList()
+                .expand(page -> page.size() < batchSize
+                        ? Mono.empty()
+                        : idsAfter.fetch(page.get(page.size() - 1), batchSize).collectList())
+                .concatMap(page -> Flux.fromIterable(page)
+                        .flatMap(id -> currentName.apply(id).map(name -> Map.entry(id, name)), concurrency)
+                        .collectList()
+                        .flatMap(names -> updateBatch(names, update)))
+                .reduce(0L, Long::sum)
+                .doOnNext(updated -> log.debug("[RECONCILE] {}: {} rows updated", entity, updated));
+    }
+
+    private Mono<Long> updateBatch(List<Map.Entry<String, String>> names,
+                                   BiFunction<String[], String[], Mono<Long>> update) {
+        if (names.isEmpty()) {
+            return Mono.just(0L);
+        }
+        String[] ids = names.stream().map(Map.Entry::getKey).toArray(String[]::new);
+        String[] values = names.stream().map(Map.Entry::getValue).toArray(String[]::new);
+        return update.apply(ids, values);
+    }
+
+    @FunctionalInterface
+    private interface IdPage {
+        Flux<String> fetch(String afterId, int limit);
+    }
+}
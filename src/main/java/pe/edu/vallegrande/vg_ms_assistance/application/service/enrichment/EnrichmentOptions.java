@@ -0,0 +1,75 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.enrichment;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Qué nombres completar en las consultas de asistencia.
+ * <ul>
+ *   <li>{@code none}: solo IDs y estados, sin nombres ni llamadas remotas.</li>
+ *   <li>{@code names}: nombres guardados en el registro; solo se consultan los que falten (por defecto).</li>
+ *   <li>{@code full}: nombres vigentes consultados a los microservicios para todas las filas.</li>
+ * </ul>
+ * {@code fields} limita los nombres a completar (studentName, classroomName, institutionName);
+ * los que no se pidan quedan en null y nunca se consultan.
+ */
+public record EnrichmentOptions(Level level, Set<NameField> fields) {
+
+    public static final EnrichmentOptions DEFAULT = new EnrichmentOptions(Level.NAMES, EnumSet.allOf(NameField.class));
+
+    public enum Level { NONE, NAMES, FULL }
+
+    public enum NameField {
+        STUDENT("studentName"),
+        CLASSROOM("classroomName"),
+        INSTITUTION("institutionName");
+
+        private final String fieldName;
+
+        NameField(String fieldName) {
+            this.fieldName = fieldName;
+        }
+
+        static NameField fromFieldName(String fieldName) {
+            return Arrays.stream(values())
+                    .filter(field -> field.fieldName.equalsIgnoreCase(fieldName.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Campo no válido en fields: " + fieldName + ". Valores permitidos: studentName, classroomName, institutionName"));
+        }
+    }
+
+    public static EnrichmentOptions of(String enrich, Collection<String> fields) {
+        Level level;
+        try {
+            level = enrich == null ? Level.NAMES : Level.valueOf(enrich.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor no válido para enrich: " + enrich + ". Valores permitidos: none, names, full");
+        }
+
+        Set<NameField> selected = EnumSet.allOf(NameField.class);
+        if (fields != null && !fields.isEmpty()) {
+            selected = EnumSet.noneOf(NameField.class);
+            for (String field : fields) {
+                selected.add(NameField.fromFieldName(field));
+            }
+        }
+        return new EnrichmentOptions(level, selected);
+    }
+
+    public boolean includes(NameField field) {
+        return level != Level.NONE && fields.contains(field);
+    }
+
+    // Con "full" se ignoran los nombres guardados y se consultan todos
+    public boolean refresh() {
+        return level == Level.FULL;
+    }
+
+    public boolean none() {
+        return level == Level.NONE || fields.isEmpty();
+    }
+}
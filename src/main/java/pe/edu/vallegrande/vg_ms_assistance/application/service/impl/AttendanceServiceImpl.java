@@ -1,25 +1,62 @@
 package pe.edu.vallegrande.vg_ms_assistance.application.service.impl;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import pe.edu.vallegrande.vg_ms_assistance.application.config.BulkInsertProperties;
+import pe.edu.vallegrande.vg_ms_assistance.application.config.PaginationProperties;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.client.InstitutionClient;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.client.StudentClient;
 import pe.edu.vallegrande.vg_ms_assistance.application.service.AttendanceService;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.analytics.ColumnarAttendanceStore;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.analytics.DashboardGrouping;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.analytics.GroupCounts;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.bitmap.AttendanceBitmapStore;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.change.AttendanceChangePublisher;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.enrichment.AttendanceEnricher;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.enrichment.EnrichmentOptions;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.pagination.CursorPage;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.pagination.CursorRequest;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.pagination.PageCursor;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.rollup.AttendanceDailyRollup;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.stats.StatsGranularity;
 import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceListItem;
 import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceStatusCounts;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.request.AttendanceImportRow;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.request.AttendanceRequest;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.request.JustificationRequest;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.AttendanceImportResponse;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.AttendanceResponse;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.AttendanceStatsResponse;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.DashboardGroupResponse;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.GroupAttendanceStatsResponse;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.InstitutionDashboardResponse;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.PeriodAttendanceStatsResponse;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.StudentAttendanceStatsResponse;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.AttendanceRepository;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.monitoring.RequestQueryLog;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.routing.ReadWriteRouting;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -29,82 +66,211 @@ public class AttendanceServiceImpl implements AttendanceService {
     private final AttendanceRepository attendanceRepository;
     private final StudentClient studentClient;
     private final InstitutionClient institutionClient;
+    private final AttendanceEnricher attendanceEnricher;
+    private final PaginationProperties paginationProperties;
+    private final AttendanceDailyRollup attendanceDailyRollup;
+    private final TransactionalOperator transactionalOperator;
+    private final BulkInsertProperties bulkInsertProperties;
+    private final AttendanceBitmapStore attendanceBitmapStore;
+    private final AttendanceChangePublisher attendanceChangePublisher;
+    private final ColumnarAttendanceStore columnarAttendanceStore;
+    private final Validator validator;
 
     @Override
-    @Transactional
     public Mono<AttendanceResponse> createAttendance(AttendanceRequest request) {
-        return attendanceRepository.countByStudentIdAndDate(
-                request.getStudentId(), request.getAttendanceDate())
-                .flatMap(count -> {
-                    if (count > 0) {
-                        return Mono.error(new IllegalArgumentException(
-                                "Ya existe un registro de asistencia para este estudiante en esta fecha"));
-                    }
-                    
-                    // Al crear, no se debe permitir hora de salida
-                    if (request.getDepartureTime() != null) {
-                        return Mono.error(new IllegalArgumentException(
-                                "No se puede registrar hora de salida al crear la asistencia"));
-                    }
+        // Al crear, no se debe permitir hora de salida
+        if (request.getDepartureTime() != null) {
+            return Mono.error(new IllegalArgumentException(
+                    "No se puede registrar hora de salida al crear la asistencia"));
+        }
 
-                    AttendanceRecord record = mapToEntity(request);
-                    record.setRegisteredAt(LocalDateTime.now());
-                    record.setUpdatedAt(LocalDateTime.now());
+        AttendanceRecord record = mapToEntity(request);
+        record.setRegisteredAt(LocalDateTime.now());
+        record.setUpdatedAt(LocalDateTime.now());
 
-                    return attendanceRepository.save(record)
-                            .map(this::mapToResponse);
-                });
+        // Los nombres se consultan fuera de la transacción; solo la escritura y el resumen van dentro.
+        // El duplicado lo detecta el índice único en la misma sentencia INSERT
+        return attendanceEnricher.captureNames(record)
+                .flatMap(this::saveNewRecord)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException(
+                        "Ya existe un registro de asistencia para este estudiante en esta fecha")))
+                .map(this::mapToResponse);
     }
 
     @Override
-    public Mono<AttendanceResponse> getAttendanceById(UUID id) {
+    public Mono<AttendanceResponse> getAttendanceById(UUID id, EnrichmentOptions options) {
         return attendanceRepository.findById(id)
-                .flatMap(this::enrichAttendanceResponse)
+                .as(ReadWriteRouting::readOnly)
+                .flatMap(record -> attendanceEnricher.enrich(record, this::mapToResponse, options))
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("Attendance record not found")));
     }
 
     @Override
-    public Flux<AttendanceResponse> getAllAttendances() {
-        return attendanceRepository.findAll()
-                .flatMap(this::enrichAttendanceResponse);
+    public Mono<CursorPage<AttendanceResponse>> getAllAttendances(CursorRequest page, EnrichmentOptions options) {
+        return page(page, options, allRecords());
     }
 
     @Override
-    public Flux<AttendanceResponse> getAttendancesByStudent(String studentId) {
-        return attendanceRepository.findByStudentId(studentId)
-                .flatMap(this::enrichAttendanceResponse);
+    public Mono<CursorPage<AttendanceResponse>> getAttendancesByStudent(String studentId, CursorRequest page, EnrichmentOptions options) {
+        return page(page, options, byStudent(studentId));
     }
 
     @Override
-    public Flux<AttendanceResponse> getAttendancesByClassroom(String classroomId) {
-        return attendanceRepository.findByClassroomId(classroomId)
-                .flatMap(this::enrichAttendanceResponse);
+    public Mono<CursorPage<AttendanceResponse>> getAttendancesByClassroom(String classroomId, CursorRequest page, EnrichmentOptions options) {
+        return page(page, options, byClassroom(classroomId));
     }
 
     @Override
-    public Flux<AttendanceResponse> getAttendancesByInstitution(String institutionId) {
-        return attendanceRepository.findByInstitutionId(institutionId)
-                .flatMap(this::enrichAttendanceResponse);
+    public Mono<CursorPage<AttendanceResponse>> getAttendancesByInstitution(String institutionId, CursorRequest page, EnrichmentOptions options) {
+        return page(page, options, byInstitution(institutionId));
     }
 
     @Override
-    public Flux<AttendanceResponse> getAttendancesByDate(LocalDate date) {
-        return attendanceRepository.findByAttendanceDate(date)
-                .flatMap(this::enrichAttendanceResponse);
+    public Mono<CursorPage<AttendanceResponse>> getAttendancesByDate(LocalDate date, CursorRequest page, EnrichmentOptions options) {
+        return page(page, options, byDate(date));
     }
 
     @Override
-    public Flux<AttendanceResponse> getAttendancesByClassroomAndDate(String classroomId, LocalDate date) {
-        return attendanceRepository.findByClassroomIdAndAttendanceDate(classroomId, date)
-                .flatMap(this::enrichAttendanceResponse);
+    public Mono<CursorPage<AttendanceResponse>> getAttendancesByClassroomAndDate(
+            String classroomId, LocalDate date, CursorRequest page, EnrichmentOptions options) {
+        return page(page, options, byClassroomAndDate(classroomId, date));
     }
 
     @Override
-    public Flux<AttendanceResponse> getAttendancesByStudentAndDateRange(
-            String studentId, LocalDate startDate, LocalDate endDate) {
-        return attendanceRepository.findByStudentIdAndAttendanceDateBetween(
-                studentId, startDate, endDate)
-                .flatMap(this::enrichAttendanceResponse);
+    public Mono<CursorPage<AttendanceResponse>> getAttendancesByStudentAndDateRange(
+            String studentId, LocalDate startDate, LocalDate endDate, CursorRequest page, EnrichmentOptions options) {
+        return page(page, options, byStudentAndDateRange(studentId, startDate, endDate));
+    }
+
+    @Override
+    public Flux<AttendanceResponse> streamAllAttendances(PageCursor after, EnrichmentOptions options) {
+        return stream(after, options, allRecords());
+    }
+
+    @Override
+    public Flux<AttendanceResponse> streamAttendancesByStudent(String studentId, PageCursor after, EnrichmentOptions options) {
+        return stream(after, options, byStudent(studentId));
+    }
+
+    @Override
+    public Flux<AttendanceResponse> streamAttendancesByClassroom(String classroomId, PageCursor after, EnrichmentOptions options) {
+        return stream(after, options, byClassroom(classroomId));
+    }
+
+    @Override
+    public Flux<AttendanceResponse> streamAttendancesByInstitution(String institutionId, PageCursor after, EnrichmentOptions options) {
+        return stream(after, options, byInstitution(institutionId));
+    }
+
+    @Override
+    public Flux<AttendanceResponse> streamAttendancesByDate(LocalDate date, PageCursor after, EnrichmentOptions options) {
+        return stream(after, options, byDate(date));
+    }
+
+    @Override
+    public Flux<AttendanceResponse> streamAttendancesByClassroomAndDate(
+            String classroomId, LocalDate date, PageCursor after, EnrichmentOptions options) {
+        return stream(after, options, byClassroomAndDate(classroomId, date));
+    }
+
+    @Override
+    public Flux<AttendanceResponse> streamAttendancesByStudentAndDateRange(
+            String studentId, LocalDate startDate, LocalDate endDate, PageCursor after, EnrichmentOptions options) {
+        return stream(after, options, byStudentAndDateRange(studentId, startDate, endDate));
+    }
+
+    // Una sola consulta ordenada cuyas filas se entregan a medida que el cliente las consume; el
+    // controlador las escribe como CSV sin juntarlas en memoria
+    @Override
+    public Flux<AttendanceResponse> exportAttendancesByInstitution(
+            String institutionId, LocalDate startDate, LocalDate endDate, EnrichmentOptions options) {
+
+        if (startDate.isAfter(endDate)) {
+            return Flux.error(new IllegalArgumentException("La fecha de inicio debe ser anterior o igual a la fecha de fin"));
+        }
+        Flux<AttendanceListItem> records = attendanceRepository
+                .findByInstitutionIdAndAttendanceDateBetween(institutionId, startDate, endDate)
+                .as(ReadWriteRouting::readOnly);
+        return attendanceEnricher.enrich(records, this::mapListItemToResponse, options);
+    }
+
+    private KeysetQuery allRecords() {
+        return attendanceRepository::findPageAfter;
+    }
+
+    private KeysetQuery byStudent(String studentId) {
+        return (afterDate, afterId, limit) ->
+                attendanceRepository.findPageByStudentIdAfter(studentId, afterDate, afterId, limit);
+    }
+
+    private KeysetQuery byClassroom(String classroomId) {
+        return (afterDate, afterId, limit) ->
+                attendanceRepository.findPageByClassroomIdAfter(classroomId, afterDate, afterId, limit);
+    }
+
+    private KeysetQuery byInstitution(String institutionId) {
+        return (afterDate, afterId, limit) ->
+                attendanceRepository.findPageByInstitutionIdAfter(institutionId, afterDate, afterId, limit);
+    }
+
+    private KeysetQuery byDate(LocalDate date) {
+        return (afterDate, afterId, limit) ->
+                attendanceRepository.findPageByAttendanceDateAfter(date, afterDate, afterId, limit);
+    }
+
+    private KeysetQuery byClassroomAndDate(String classroomId, LocalDate date) {
+        return (afterDate, afterId, limit) ->
+                attendanceRepository.findPageByClassroomIdAndAttendanceDateAfter(classroomId, date, afterDate, afterId, limit);
+    }
+
+    private KeysetQuery byStudentAndDateRange(String studentId, LocalDate startDate, LocalDate endDate) {
+        return (afterDate, afterId, limit) ->
+                attendanceRepository.findPageByStudentIdAndAttendanceDateBetweenAfter(
+                        studentId, startDate, endDate, afterDate, afterId, limit);
+    }
+
+    // Lee una fila de más para saber si hay otra página sin hacer un COUNT. Las lecturas fuera de
+    // transacción van a la réplica si está configurada
+    private Mono<CursorPage<AttendanceResponse>> page(CursorRequest page, EnrichmentOptions options, KeysetQuery query) {
+        int limit = paginationProperties.limit(page.size());
+        PageCursor after = page.after();
+        return query.fetch(after.date(), after.id(), limit + 1)
+                .as(ReadWriteRouting::readOnly)
+                .collectList()
+                .flatMap(rows -> {
+                    boolean hasNext = rows.size() > limit;
+                    List<AttendanceListItem> records = hasNext ? rows.subList(0, limit) : rows;
+                    String nextCursor = hasNext ? PageCursor.after(records.get(limit - 1)).encode() : null;
+                    return attendanceEnricher.enrich(Flux.fromIterable(records), this::mapListItemToResponse, options)
+                            .collectList()
+                            .map(items -> new CursorPage<>(items, nextCursor));
+                });
+    }
+
+    // Recorre el resultado completo página por página con la misma consulta por keyset. Cada página es
+    // una consulta corta (no se mantiene un cursor abierto mientras el cliente lee) y la siguiente solo
+    // se pide cuando el cliente ya consumió la anterior: aquí se pide una página a la vez (prefetch 1) y
+    // el enriquecedor no adelanta lotes, así que un cliente lento no hace que se lean páginas por adelantado
+    private Flux<AttendanceResponse> stream(PageCursor after, EnrichmentOptions options, KeysetQuery query) {
+        int pageSize = paginationProperties.getStreamPageSize();
+        Flux<AttendanceListItem> records = fetchPage(query, after, pageSize)
+                .expand(rows -> rows.size() < pageSize
+                        ? Mono.empty()
+                        : fetchPage(query, PageCursor.after(rows.get(rows.size() - 1)), pageSize))
+                .concatMapIterable(rows -> rows, 1);
+        return attendanceEnricher.enrich(records, this::mapListItemToResponse, options);
+    }
+
+    private static Mono<List<AttendanceListItem>> fetchPage(KeysetQuery query, PageCursor after, int pageSize) {
+        return query.fetch(after.date(), after.id(), pageSize)
+                .as(ReadWriteRouting::readOnly)
+                .as(RequestQueryLog::untracked)
+                .collectList();
+    }
+
+    @FunctionalInterface
+    private interface KeysetQuery {
+        Flux<AttendanceListItem> fetch(LocalDate afterDate, UUID afterId, int limit);
     }
 
     @Override
@@ -113,6 +279,7 @@ public class AttendanceServiceImpl implements AttendanceService {
         return attendanceRepository.findById(id)
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("Attendance record not found")))
                 .flatMap(existing -> {
+                    AttendanceStatus previousStatus = existing.getAttendanceStatus();
                     // Solo se puede modificar el estado, hora de salida y justificación
                     existing.setAttendanceStatus(request.getAttendanceStatus());
                     existing.setDepartureTime(request.getDepartureTime());
@@ -130,6 +297,8 @@ public class AttendanceServiceImpl implements AttendanceService {
                     }
 
                     return attendanceRepository.save(existing)
+                            .flatMap(saved -> attendanceDailyRollup.statusChanged(saved, previousStatus).thenReturn(saved))
+                            .flatMap(saved -> attendanceChangePublisher.recordSaved(saved).thenReturn(saved))
                             .map(this::mapToResponse);
                 });
     }
@@ -140,6 +309,7 @@ public class AttendanceServiceImpl implements AttendanceService {
         return attendanceRepository.findById(id)
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("Attendance record not found")))
                 .flatMap(existing -> {
+                    AttendanceStatus previousStatus = existing.getAttendanceStatus();
                     existing.setJustified(true);
                     existing.setJustificationReason(request.getJustificationReason());
                     existing.setJustificationDocumentUrl(request.getJustificationDocumentUrl());
@@ -151,6 +321,8 @@ public class AttendanceServiceImpl implements AttendanceService {
                     existing.setUpdatedAt(LocalDateTime.now());
 
                     return attendanceRepository.save(existing)
+                            .flatMap(saved -> attendanceDailyRollup.statusChanged(saved, previousStatus).thenReturn(saved))
+                            .flatMap(saved -> attendanceChangePublisher.recordSaved(saved).thenReturn(saved))
                             .map(this::mapToResponse);
                 });
     }
@@ -160,49 +332,175 @@ public class AttendanceServiceImpl implements AttendanceService {
     public Mono<Void> deleteAttendance(UUID id) {
         return attendanceRepository.findById(id)
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("Attendance record not found")))
-                .flatMap(attendanceRepository::delete);
+                .flatMap(existing -> attendanceRepository.delete(existing)
+                        .then(attendanceDailyRollup.recordRemoved(existing))
+                        .then(attendanceChangePublisher.recordRemoved(existing)));
     }
 
     @Override
     public Mono<AttendanceStatsResponse> getAttendanceStats(
             String studentId, LocalDate startDate, LocalDate endDate) {
 
-        return Mono.zip(
-                attendanceRepository.countByStudentIdAndDateRange(studentId, startDate, endDate),
-                attendanceRepository.countByStudentIdAndStatusAndDateRange(
-                        studentId, AttendanceStatus.PRESENTE, startDate, endDate),
-                attendanceRepository.countByStudentIdAndStatusAndDateRange(
-                        studentId, AttendanceStatus.AUSENTE, startDate, endDate),
-                attendanceRepository.countByStudentIdAndStatusAndDateRange(
-                        studentId, AttendanceStatus.TARDANZA, startDate, endDate),
-                attendanceRepository.countByStudentIdAndStatusAndDateRange(
-                        studentId, AttendanceStatus.JUSTIFICADO, startDate, endDate),
-                attendanceRepository.countByStudentIdAndStatusAndDateRange(
-                        studentId, AttendanceStatus.PERMISO, startDate, endDate))
-                .map(tuple -> {
-                    Long total = tuple.getT1();
-                    Long present = tuple.getT2();
-                    Long absent = tuple.getT3();
-                    Long late = tuple.getT4();
-                    Long justified = tuple.getT5();
-                    Long permission = tuple.getT6();
-
-                    Double attendanceRate = total > 0
-                            ? ((present + late) * 100.0) / total
-                            : 0.0;
-
-                    return AttendanceStatsResponse.builder()
-                            .totalRecords(total)
-                            .presentCount(present)
-                            .absentCount(absent)
-                            .lateCount(late)
-                            .justifiedCount(justified)
-                            .permissionCount(permission)
-                            .attendanceRate(attendanceRate)
+        // Con el bitmap del estudiante en memoria el conteo no toca la base de datos
+        Mono<AttendanceStatusCounts> counts = attendanceBitmapStore.covers(startDate, endDate)
+                ? attendanceBitmapStore.counts(studentId, startDate, endDate)
+                : attendanceRepository.countStatusesByStudentIdAndDateRange(studentId, startDate, endDate)
+                        .as(ReadWriteRouting::readOnly);
+        return counts.map(this::mapToStats);
+    }
+
+    @Override
+    public Flux<StudentAttendanceStatsResponse> getStudentStatsByClassroom(
+            String classroomId, LocalDate startDate, LocalDate endDate) {
+
+        return attendanceRepository.countStatusesPerStudentByClassroomIdAndDateRange(classroomId, startDate, endDate)
+                .as(ReadWriteRouting::readOnly)
+                .map(counts -> StudentAttendanceStatsResponse.builder()
+                        .studentId(counts.getStudentId())
+                        .studentName(counts.getStudentName())
+                        .stats(mapToStats(counts))
+                        .build());
+    }
+
+    @Override
+    public Mono<GroupAttendanceStatsResponse> getClassroomStats(
+            String classroomId, LocalDate startDate, LocalDate endDate, StatsGranularity groupBy) {
+
+        if (startDate.isAfter(endDate)) {
+            return Mono.error(new IllegalArgumentException("La fecha de inicio debe ser anterior o igual a la fecha de fin"));
+        }
+        Flux<AttendanceStatusCounts> rows = groupBy == StatsGranularity.NONE
+                ? attendanceRepository.sumRollupByClassroomIdAndDateRange(classroomId, startDate, endDate).flux()
+                : attendanceRepository.sumRollupPerPeriodByClassroomIdAndDateRange(
+                        classroomId, startDate, endDate, groupBy.truncUnit());
+        return mapToGroupStats(rows, startDate, endDate, groupBy)
+                .doOnNext(stats -> stats.setClassroomId(classroomId));
+    }
+
+    @Override
+    public Mono<GroupAttendanceStatsResponse> getInstitutionStats(
+            String institutionId, LocalDate startDate, LocalDate endDate, StatsGranularity groupBy) {
+
+        if (startDate.isAfter(endDate)) {
+            return Mono.error(new IllegalArgumentException("La fecha de inicio debe ser anterior o igual a la fecha de fin"));
+        }
+        Flux<AttendanceStatusCounts> rows = groupBy == StatsGranularity.NONE
+                ? attendanceRepository.sumRollupByInstitutionIdAndDateRange(institutionId, startDate, endDate).flux()
+                : attendanceRepository.sumRollupPerPeriodByInstitutionIdAndDateRange(
+                        institutionId, startDate, endDate, groupBy.truncUnit());
+        return mapToGroupStats(rows, startDate, endDate, groupBy)
+                .doOnNext(stats -> stats.setInstitutionId(institutionId));
+    }
+
+    @Override
+    public Mono<InstitutionDashboardResponse> getInstitutionDashboard(
+            String institutionId, LocalDate startDate, LocalDate endDate, DashboardGrouping groupBy) {
+
+        if (startDate.isAfter(endDate)) {
+            return Mono.error(new IllegalArgumentException("La fecha de inicio debe ser anterior o igual a la fecha de fin"));
+        }
+        Mono<List<GroupCounts>> sqlGroups = Mono.defer(() -> dashboardGroupsFromSql(institutionId, startDate, endDate, groupBy));
+        Mono<List<GroupCounts>> groups = columnarAttendanceStore.covers(startDate)
+                ? columnarAttendanceStore.aggregate(institutionId, startDate, endDate, groupBy).switchIfEmpty(sqlGroups)
+                : sqlGroups;
+        return groups
+                .map(list -> InstitutionDashboardResponse.builder()
+                        .institutionId(institutionId)
+                        .startDate(startDate)
+                        .endDate(endDate)
+                        .groupBy(groupBy.name().toLowerCase(Locale.ROOT))
+                        .groups(list.stream()
+                                .map(group -> DashboardGroupResponse.builder()
+                                        .key(group.key())
+                                        .averageArrivalTime(group.averageArrivalMinute() != null
+                                                ? LocalTime.of(group.averageArrivalMinute() / 60, group.averageArrivalMinute() % 60)
+                                                : null)
+                                        .stats(mapToStats(group.counts()))
+                                        .build())
+                                .toList())
+                        .build());
+    }
+
+    // Rangos anteriores a la ventana del almacén en memoria, o instituciones que no caben en él.
+    // Mismo orden que InstitutionColumns: por clave (las fechas ISO también ordenan por día)
+    private Mono<List<GroupCounts>> dashboardGroupsFromSql(String institutionId, LocalDate startDate, LocalDate endDate,
+                                                           DashboardGrouping groupBy) {
+        Flux<AttendanceStatusCounts> rows = switch (groupBy) {
+            case CLASSROOM -> attendanceRepository.countDashboardPerClassroom(institutionId, startDate, endDate);
+            case STUDENT -> attendanceRepository.countDashboardPerStudent(institutionId, startDate, endDate);
+            case DAY -> attendanceRepository.countDashboardPerDay(institutionId, startDate, endDate);
+        };
+        return rows.as(ReadWriteRouting::readOnly)
+                .map(row -> new GroupCounts(row.getGroupKey(), row, row.getAverageArrivalMinute()))
+                .sort(Comparator.comparing(GroupCounts::key))
+                .collectList();
+    }
+
+    // La fila sin periodStart es el total del rango; el resto es el desglose ordenado por periodo,
+    // recortando la primera y la última semana a las fechas pedidas
+    private Mono<GroupAttendanceStatsResponse> mapToGroupStats(Flux<AttendanceStatusCounts> rows,
+                                                               LocalDate startDate, LocalDate endDate,
+                                                               StatsGranularity groupBy) {
+        return rows.as(ReadWriteRouting::readOnly)
+                .collectList()
+                .map(list -> {
+                    AttendanceStatusCounts total = list.stream()
+                            .filter(row -> row.getPeriodStart() == null)
+                            .findFirst()
+                            .orElseGet(AttendanceStatusCounts::new);
+                    List<PeriodAttendanceStatsResponse> breakdown = list.stream()
+                            .filter(row -> row.getPeriodStart() != null)
+                            .map(row -> PeriodAttendanceStatsResponse.builder()
+                                    .periodStart(max(row.getPeriodStart(), startDate))
+                                    .periodEnd(min(groupBy.periodEnd(row.getPeriodStart()), endDate))
+                                    .stats(mapToStats(row))
+                                    .build())
+                            .toList();
+
+                    return GroupAttendanceStatsResponse.builder()
+                            .startDate(startDate)
+                            .endDate(endDate)
+                            .groupBy(groupBy.name().toLowerCase(Locale.ROOT))
+                            .summary(mapToStats(total))
+                            .breakdown(breakdown)
                             .build();
                 });
     }
 
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private AttendanceStatsResponse mapToStats(AttendanceStatusCounts counts) {
+        long total = counts.getTotalRecords();
+        Double attendanceRate = total > 0
+                ? ((counts.getPresentCount() + counts.getLateCount()) * 100.0) / total
+                : 0.0;
+
+        return AttendanceStatsResponse.builder()
+                .totalRecords(total)
+                .presentCount(counts.getPresentCount())
+                .absentCount(counts.getAbsentCount())
+                .lateCount(counts.getLateCount())
+                .justifiedCount(counts.getJustifiedCount())
+                .permissionCount(counts.getPermissionCount())
+                .attendanceRate(attendanceRate)
+                .build();
+    }
+
+    // Inserta el registro y suma su fila en el resumen diario dentro de una misma transacción;
+    // vacío si ya existía un registro del estudiante en esa fecha
+    private Mono<AttendanceRecord> saveNewRecord(AttendanceRecord record) {
+        return attendanceRepository.insertIfAbsent(record)
+                .flatMap(saved -> attendanceDailyRollup.recordAdded(saved).thenReturn(saved))
+                .flatMap(saved -> attendanceChangePublisher.recordSaved(saved).thenReturn(saved))
+                .as(transactionalOperator::transactional);
+    }
+
     private AttendanceRecord mapToEntity(AttendanceRequest request) {
         return AttendanceRecord.builder()
                 .studentId(request.getStudentId())
@@ -224,8 +522,11 @@ public class AttendanceServiceImpl implements AttendanceService {
         return AttendanceResponse.builder()
                 .id(record.getId())
                 .studentId(record.getStudentId())
+                .studentName(record.getStudentName())
                 .classroomId(record.getClassroomId())
+                .classroomName(record.getClassroomName())
                 .institutionId(record.getInstitutionId())
+                .institutionName(record.getInstitutionName())
                 .attendanceDate(record.getAttendanceDate())
                 .academicYear(record.getAcademicYear())
                 .attendanceStatus(record.getAttendanceStatus())
@@ -239,56 +540,27 @@ public class AttendanceServiceImpl implements AttendanceService {
                 .updatedAt(record.getUpdatedAt())
                 .build();
     }
-    
-    private Mono<AttendanceResponse> enrichAttendanceResponse(AttendanceRecord record) {
-        return Mono.zip(
-                studentClient.getStudentById(record.getStudentId())
-                        .doOnNext(student -> {
-                            log.debug("[ENRICH] Student data received: id={}, personalInfo={}", 
-                                student.getId(), student.getPersonalInfo());
-                            if (student.getPersonalInfo() != null) {
-                                log.debug("[ENRICH] PersonalInfo: names={}, lastNames={}", 
-                                    student.getPersonalInfo().getNames(), 
-                                    student.getPersonalInfo().getLastNames());
-                            }
-                            log.debug("[ENRICH] DisplayName result: {}", student.getDisplayName());
-                        })
-                        .map(student -> student.getDisplayName())
-                        .defaultIfEmpty("Nombre no disponible"),
-                institutionClient.getClassroomById(record.getClassroomId())
-                        .doOnNext(classroom -> log.debug("[ENRICH] Classroom: {}", classroom.getDisplayName()))
-                        .map(classroom -> classroom.getDisplayName())
-                        .defaultIfEmpty("Aula no disponible"),
-                institutionClient.getInstitutionById(record.getInstitutionId())
-                        .doOnNext(institution -> log.debug("[ENRICH] Institution: {}", institution.getDisplayName()))
-                        .map(institution -> institution.getDisplayName())
-                        .defaultIfEmpty("Institución no disponible")
-        ).map(tuple -> {
-            String studentName = tuple.getT1();
-            String classroomName = tuple.getT2();
-            String institutionName = tuple.getT3();
-            
-            return AttendanceResponse.builder()
-                    .id(record.getId())
-                    .studentId(record.getStudentId())
-                    .studentName(studentName)
-                    .classroomId(record.getClassroomId())
-                    .classroomName(classroomName)
-                    .institutionId(record.getInstitutionId())
-                    .institutionName(institutionName)
-                    .attendanceDate(record.getAttendanceDate())
-                    .academicYear(record.getAcademicYear())
-                    .attendanceStatus(record.getAttendanceStatus())
-                    .arrivalTime(record.getArrivalTime())
-                    .departureTime(record.getDepartureTime())
-                    .justified(record.getJustified())
-                    .justificationReason(record.getJustificationReason())
-                    .justificationDocumentUrl(record.getJustificationDocumentUrl())
-                    .registeredBy(record.getRegisteredBy())
-                    .registeredAt(record.getRegisteredAt())
-                    .updatedAt(record.getUpdatedAt())
-                    .build();
-        });
+
+    // Listados y exportación: sin los textos de justificación, que la fila no trae
+    private AttendanceResponse mapListItemToResponse(AttendanceListItem item) {
+        return AttendanceResponse.builder()
+                .id(item.getId())
+                .studentId(item.getStudentId())
+                .studentName(item.getStudentName())
+                .classroomId(item.getClassroomId())
+                .classroomName(item.getClassroomName())
+                .institutionId(item.getInstitutionId())
+                .institutionName(item.getInstitutionName())
+                .attendanceDate(item.getAttendanceDate())
+                .academicYear(item.getAcademicYear())
+                .attendanceStatus(item.getAttendanceStatus())
+                .arrivalTime(item.getArrivalTime())
+                .departureTime(item.getDepartureTime())
+                .justified(item.getJustified())
+                .registeredBy(item.getRegisteredBy())
+                .registeredAt(item.getRegisteredAt())
+                .updatedAt(item.getUpdatedAt())
+                .build();
     }
     
     @Override
@@ -327,67 +599,37 @@ public class AttendanceServiceImpl implements AttendanceService {
     }
     
     @Override
-    @Transactional
     public Mono<pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.BulkAttendanceResponse> createBulkAttendance(
             pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.request.BulkAttendanceRequest request) {
         
         log.info("Creating bulk attendance for {} students", request.getStudentIds().size());
         
-        return Flux.fromIterable(request.getStudentIds())
-                .flatMap(studentId -> {
-                    // Verificar si ya existe registro para este estudiante en esta fecha
-                    return attendanceRepository.countByStudentIdAndDate(studentId, request.getAttendanceDate())
-                            .flatMap(count -> {
-                                if (count > 0) {
-                                    // Ya existe, retornar error
-                                    return studentClient.getStudentById(studentId)
-                                            .map(student -> pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.BulkAttendanceResponse.FailedRecord.builder()
-                                                    .studentId(studentId)
-                                                    .studentName(student.getDisplayName())
-                                                    .reason("Ya existe un registro de asistencia para esta fecha")
-                                                    .build())
-                                            .defaultIfEmpty(pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.BulkAttendanceResponse.FailedRecord.builder()
-                                                    .studentId(studentId)
-                                                    .studentName("Desconocido")
-                                                    .reason("Ya existe un registro de asistencia para esta fecha")
-                                                    .build())
-                                            .map(failed -> new BulkResult(null, failed));
-                                }
-                                
-                                // Crear el registro
-                                AttendanceRecord record = AttendanceRecord.builder()
-                                        .studentId(studentId)
-                                        .classroomId(request.getClassroomId())
-                                        .institutionId(request.getInstitutionId())
-                                        .attendanceDate(request.getAttendanceDate())
-                                        .academicYear(request.getAcademicYear())
-                                        .attendanceStatus(request.getAttendanceStatus())
-                                        .arrivalTime(request.getArrivalTime())
-                                        .justified(false)
-                                        .registeredBy(request.getRegisteredBy())
-                                        .registeredAt(LocalDateTime.now())
-                                        .updatedAt(LocalDateTime.now())
-                                        .build();
-                                
-                                return attendanceRepository.save(record)
-                                        .map(saved -> new BulkResult(mapToResponse(saved), null))
-                                        .onErrorResume(error -> {
-                                            log.error("Error saving attendance for student {}: {}", studentId, error.getMessage());
-                                            return studentClient.getStudentById(studentId)
-                                                    .map(student -> new BulkResult(null, 
-                                                            pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.BulkAttendanceResponse.FailedRecord.builder()
-                                                                    .studentId(studentId)
-                                                                    .studentName(student.getDisplayName())
-                                                                    .reason("Error al guardar: " + error.getMessage())
-                                                                    .build()))
-                                                    .defaultIfEmpty(new BulkResult(null,
-                                                            pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.BulkAttendanceResponse.FailedRecord.builder()
-                                                                    .studentId(studentId)
-                                                                    .studentName("Desconocido")
-                                                                    .reason("Error al guardar: " + error.getMessage())
-                                                                    .build()));
-                                        });
-                            });
+        Set<String> studentIds = new LinkedHashSet<>(request.getStudentIds());
+        List<BulkResult> repeated = repeatedStudentIds(request.getStudentIds()).stream()
+                .map(studentId -> new BulkResult(null, failedRecord(studentId, null,
+                        "Estudiante repetido en la solicitud")))
+                .toList();
+
+        // Una sola consulta para descartar a los que ya tienen registro en la fecha
+        return attendanceRepository.findByAttendanceDateAndStudentIdIn(
+                        request.getAttendanceDate(), studentIds.toArray(String[]::new))
+                .collectMap(AttendanceRecord::getStudentId)
+                .flatMapMany(existing -> {
+                    Flux<BulkResult> duplicates = Flux.fromIterable(existing.values())
+                            .map(record -> new BulkResult(null, failedRecord(record.getStudentId(), record.getStudentName(),
+                                    "Ya existe un registro de asistencia para esta fecha")));
+
+                    List<AttendanceRecord> pending = studentIds.stream()
+                            .filter(studentId -> !existing.containsKey(studentId))
+                            .map(studentId -> newBulkRecord(request, studentId))
+                            .toList();
+
+                    Flux<BulkResult> inserted = attendanceEnricher.captureNames(pending)
+                            .flatMapIterable(records -> records)
+                            .buffer(bulkInsertProperties.getBatchSize())
+                            .concatMap(this::insertBulkBatch);
+
+                    return Flux.concat(Flux.fromIterable(repeated), duplicates, inserted);
                 })
                 .collectList()
                 .map(results -> {
@@ -411,6 +653,199 @@ public class AttendanceServiceImpl implements AttendanceService {
                 });
     }
     
+    // El resultado del lote indica qué estudiantes se insertaron y cuáles ya tenían registro
+    private Flux<BulkResult> insertBulkBatch(List<AttendanceRecord> batch) {
+        return insertBatch(batch)
+                .flatMapMany(inserted -> Flux.fromIterable(batch)
+                        .map(record -> record.getId() != null
+                                ? new BulkResult(mapToResponse(record), null)
+                                : new BulkResult(null, failedRecord(record.getStudentId(), record.getStudentName(),
+                                        "Ya existe un registro de asistencia para esta fecha"))))
+                .onErrorResume(error -> {
+                    log.error("Error saving attendance batch of {} records: {}", batch.size(), error.getMessage());
+                    return Flux.fromIterable(batch)
+                            .map(record -> new BulkResult(null, failedRecord(record.getStudentId(), record.getStudentName(),
+                                    "Error al guardar: " + error.getMessage())));
+                });
+    }
+
+    // Cada lote es un único envío a la base de datos y una transacción propia junto con el resumen diario.
+    // Los registros insertados quedan con su ID; los que ya tenían registro en la fecha, sin ID
+    private Mono<List<AttendanceRecord>> insertBatch(List<AttendanceRecord> batch) {
+        return attendanceRepository.insertAllIfAbsent(batch)
+                .collectList()
+                .flatMap(inserted -> attendanceDailyRollup.recordsAdded(inserted).thenReturn(inserted))
+                .flatMap(inserted -> attendanceChangePublisher.recordsSaved(inserted).thenReturn(inserted))
+                .as(transactionalOperator::transactional);
+    }
+
+    // Las filas se validan con las mismas reglas que createAttendance a medida que se leen y las válidas se
+    // guardan por lotes como en la carga masiva. Un lote se inserta antes de seguir leyendo el archivo, así
+    // que en memoria solo hay un lote, los contadores y hasta import-max-errors errores.
+    // Si la lectura se corta a mitad del archivo (línea demasiado larga, subida interrumpida) los lotes ya
+    // guardados quedan guardados: se guardan también las filas ya leídas y el informe parcial sale con
+    // fileError. Un archivo inválido antes de la primera fila (sin cabecera, columnas faltantes) sigue
+    // siendo un error de la petición
+    @Override
+    public Mono<AttendanceImportResponse> importAttendances(Flux<AttendanceImportRow> rows) {
+        return Mono.defer(() -> {
+            ImportReport report = new ImportReport(bulkInsertProperties.getImportMaxErrors());
+            return rows
+                    .doOnNext(report::read)
+                    .onErrorResume(error -> report.totalRows > 0 || !(error instanceof IllegalArgumentException),
+                            error -> {
+                                log.error("Attendance import interrupted after line {}: {}", report.lastLine, error.getMessage());
+                                report.interrupted(error);
+                                return Flux.empty();
+                            })
+                    .filter(row -> {
+                        String error = validateImportRow(row);
+                        if (error != null) {
+                            report.failed(row, error);
+                        }
+                        return error == null;
+                    })
+                    .buffer(bulkInsertProperties.getBatchSize())
+                    .concatMap(batch -> importBatch(batch, report))
+                    // Un archivo grande son muchos lotes con las mismas consultas: no es un N+1
+                    .as(RequestQueryLog::untracked)
+                    .then(Mono.fromSupplier(report::toResponse));
+        });
+    }
+
+    private String validateImportRow(AttendanceImportRow row) {
+        if (row.error() != null) {
+            return row.error();
+        }
+        Set<ConstraintViolation<AttendanceRequest>> violations = validator.validate(row.request());
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (row.request().getDepartureTime() != null) {
+            return "No se puede registrar hora de salida al crear la asistencia";
+        }
+        return null;
+    }
+
+    private Mono<Void> importBatch(List<AttendanceImportRow> batch, ImportReport report) {
+        LocalDateTime now = LocalDateTime.now();
+        List<AttendanceRecord> records = batch.stream()
+                .map(row -> {
+                    AttendanceRecord record = mapToEntity(row.request());
+                    record.setRegisteredAt(now);
+                    record.setUpdatedAt(now);
+                    return record;
+                })
+                .toList();
+
+        return attendanceEnricher.captureNames(records)
+                .flatMap(this::insertBatch)
+                .doOnNext(inserted -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (records.get(i).getId() != null) {
+                            report.importedCount++;
+                        } else {
+                            report.failed(batch.get(i), "Ya existe un registro de asistencia para este estudiante en esta fecha");
+                        }
+                    }
+                })
+                .onErrorResume(error -> {
+                    log.error("Error importing attendance batch of {} rows: {}", batch.size(), error.getMessage());
+                    batch.forEach(row -> report.failed(row, "Error al guardar: " + error.getMessage()));
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private static class ImportReport {
+        final int maxErrors;
+        long totalRows;
+        long lastLine;
+        long importedCount;
+        long failedCount;
+        String fileError;
+        final List<AttendanceImportResponse.RowError> errors = new ArrayList<>();
+
+        ImportReport(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void read(AttendanceImportRow row) {
+            totalRows++;
+            lastLine = row.line();
+        }
+
+        // Se cuentan todas las filas rechazadas, pero solo se detallan las primeras maxErrors
+        void failed(AttendanceImportRow row, String reason) {
+            failedCount++;
+            if (errors.size() < maxErrors) {
+                errors.add(AttendanceImportResponse.RowError.builder()
+                        .line(row.line())
+                        .studentId(row.request().getStudentId())
+                        .reason(reason)
+                        .build());
+            }
+        }
+
+        void interrupted(Throwable error) {
+            fileError = totalRows == 0
+                    ? "No se pudo leer el archivo: " + error.getMessage()
+                    : "La lectura del archivo se interrumpió después de la línea " + lastLine + ": " + error.getMessage()
+                            + ". Las filas siguientes no se importaron";
+        }
+
+        AttendanceImportResponse toResponse() {
+            return AttendanceImportResponse.builder()
+                    .totalRows(totalRows)
+                    .importedCount(importedCount)
+                    .failedCount(failedCount)
+                    .errors(errors)
+                    .errorsTruncated(failedCount > errors.size())
+                    .fileError(fileError)
+                    .build();
+        }
+    }
+
+    private AttendanceRecord newBulkRecord(
+            pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.request.BulkAttendanceRequest request, String studentId) {
+        return AttendanceRecord.builder()
+                .studentId(studentId)
+                .classroomId(request.getClassroomId())
+                .institutionId(request.getInstitutionId())
+                .attendanceDate(request.getAttendanceDate())
+                .academicYear(request.getAcademicYear())
+                .attendanceStatus(request.getAttendanceStatus())
+                .arrivalTime(request.getArrivalTime())
+                .justified(false)
+                .registeredBy(request.getRegisteredBy())
+                .registeredAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static Set<String> repeatedStudentIds(List<String> studentIds) {
+        Set<String> seen = new HashSet<>();
+        Set<String> repeated = new LinkedHashSet<>();
+        studentIds.forEach(studentId -> {
+            if (!seen.add(studentId)) {
+                repeated.add(studentId);
+            }
+        });
+        return repeated;
+    }
+
+    private pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.BulkAttendanceResponse.FailedRecord failedRecord(
+            String studentId, String studentName, String reason) {
+        return pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.BulkAttendanceResponse.FailedRecord.builder()
+                .studentId(studentId)
+                .studentName(studentName != null ? studentName : "Desconocido")
+                .reason(reason)
+                .build();
+    }
+    
     @Override
     public Flux<pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.ExtendedReferenceDTO> getStudentsByInstitution(String institutionId) {
         return studentClient.getStudentsByInstitution(institutionId)
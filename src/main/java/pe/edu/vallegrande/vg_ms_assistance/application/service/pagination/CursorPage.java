@@ -0,0 +1,13 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.pagination;
+
+import java.util.List;
+
+/**
+ * Una página de resultados y el token para pedir la siguiente (null si es la última).
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,17 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.pagination;
+
+/**
+ * Página solicitada: posición de inicio y tamaño pedido por el cliente (null para usar el tamaño por defecto).
+ * El tope de tamaño lo aplica el servicio.
+ */
+public record CursorRequest(PageCursor after, Integer size) {
+
+    public static final CursorRequest FIRST = new CursorRequest(PageCursor.START, null);
+
+    public static CursorRequest of(String cursor, Integer size) {
+        if (size != null && size < 1) {
+            throw new IllegalArgumentException("size debe ser mayor que 0");
+        }
+        return new CursorRequest(PageCursor.decodeOrStart(cursor), size);
+    }
+}
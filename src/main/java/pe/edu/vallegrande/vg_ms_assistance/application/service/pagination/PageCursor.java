@@ -0,0 +1,49 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.pagination;
+
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceListItem;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posición en el orden (attendance_date, id) de los registros de asistencia.
+ * Se envía al cliente como un token opaco; la siguiente página empieza justo después de esta posición.
+ */
+public record PageCursor(LocalDate date, UUID id) {
+
+    // Anterior a cualquier registro: punto de partida de la primera página
+    public static final PageCursor START = new PageCursor(LocalDate.of(1, 1, 1), new UUID(0L, 0L));
+
+    private static final String SEPARATOR = "|";
+
+    public static PageCursor after(AttendanceListItem record) {
+        return new PageCursor(record.getAttendanceDate(), record.getId());
+    }
+
+    public String encode() {
+        String raw = date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Sin token se empieza desde el primer registro
+    public static PageCursor decodeOrStart(String token) {
+        return token == null || token.isBlank() ? START : decode(token);
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Cursor no válido");
+            }
+            return new PageCursor(LocalDate.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor no válido");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.AttendanceRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Crea por adelantado las particiones anuales de attendance_records (año actual y los siguientes
+ * {@code years-ahead}), para que los registros nuevos no terminen en la partición por defecto.
+ * Se ejecuta al arrancar y luego según el cron configurado; crear una partición existente no hace nada.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "attendance.partitioning", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AttendancePartitionMaintainer {
+
+    private final AttendanceRepository attendanceRepository;
+    private final int yearsAhead;
+
+    public AttendancePartitionMaintainer(AttendanceRepository attendanceRepository,
+                                         @Value("${attendance.partitioning.years-ahead:1}") int yearsAhead) {
+        this.attendanceRepository = attendanceRepository;
+        this.yearsAhead = yearsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensurePartitions().subscribe();
+    }
+
+    @Scheduled(cron = "${attendance.partitioning.cron:0 0 3 1 * *}")
+    public Mono<Void> ensurePartitions() {
+        int currentYear = LocalDate.now().getYear();
+        return Flux.range(currentYear, yearsAhead + 1)
+                .concatMap(year -> attendanceRepository.createPartition(year)
+                        .filter(Boolean::booleanValue)
+                        .doOnNext(created -> log.info("Created attendance_records partition for {}", year)))
+                .doOnError(error -> log.error("Attendance partition maintenance failed: {}", error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .then();
+    }
+}
@@ -0,0 +1,111 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.rollup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.AttendanceRepository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantiene attendance_daily_rollup: conteo de registros por (institución, aula, fecha, estado).
+ * Cada método debe ejecutarse dentro de la transacción de la escritura que lo origina, para que el
+ * resumen y los registros nunca difieran. Las claves se ajustan siempre en el mismo orden para que dos
+ * transacciones concurrentes no se bloqueen mutuamente.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AttendanceDailyRollup {
+
+    // Rango completo para reconstruir todo el resumen
+    static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator
+            .comparing(RollupKey::institutionId)
+            .thenComparing(RollupKey::classroomId)
+            .thenComparing(RollupKey::date)
+            .thenComparing(key -> key.status().name());
+
+    private final AttendanceRepository attendanceRepository;
+
+    public Mono<Void> recordAdded(AttendanceRecord record) {
+        return adjust(Map.of(RollupKey.of(record, record.getAttendanceStatus()), 1L));
+    }
+
+    public Mono<Void> recordsAdded(Collection<AttendanceRecord> records) {
+        Map<RollupKey, Long> deltas = new TreeMap<>(KEY_ORDER);
+        records.forEach(record -> deltas.merge(RollupKey.of(record, record.getAttendanceStatus()), 1L, Long::sum));
+        return adjust(deltas);
+    }
+
+    public Mono<Void> recordRemoved(AttendanceRecord record) {
+        return adjust(Map.of(RollupKey.of(record, record.getAttendanceStatus()), -1L));
+    }
+
+    public Mono<Void> statusChanged(AttendanceRecord record, AttendanceStatus previousStatus) {
+        if (previousStatus == record.getAttendanceStatus()) {
+            return Mono.empty();
+        }
+        Map<RollupKey, Long> deltas = new TreeMap<>(KEY_ORDER);
+        deltas.put(RollupKey.of(record, previousStatus), -1L);
+        deltas.put(RollupKey.of(record, record.getAttendanceStatus()), 1L);
+        return adjust(deltas);
+    }
+
+    /**
+     * Recalcula el resumen del rango a partir de attendance_records (backfills y correcciones).
+     */
+    @Transactional
+    public Mono<Long> rebuild(LocalDate startDate, LocalDate endDate) {
+        LocalDate from = startDate != null ? startDate : MIN_DATE;
+        LocalDate to = endDate != null ? endDate : MAX_DATE;
+        if (from.isAfter(to)) {
+            return Mono.error(new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin"));
+        }
+        return attendanceRepository.lockDailyRollup()
+                .then(attendanceRepository.deleteDailyRollup(from, to))
+                .then(attendanceRepository.insertDailyRollup(from, to))
+                .doOnNext(rows -> log.info("Daily rollup rebuilt for {} to {}: {} rows", from, to, rows));
+    }
+
+    // Una sola sentencia por escritura, sin importar cuántas claves toque (un lote de carga masiva o de
+    // importación puede tocar muchas); las claves van en el orden de KEY_ORDER
+    private Mono<Void> adjust(Map<RollupKey, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return Mono.empty();
+        }
+        int size = deltas.size();
+        String[] institutionIds = new String[size];
+        String[] classroomIds = new String[size];
+        LocalDate[] dates = new LocalDate[size];
+        String[] statuses = new String[size];
+        Long[] counts = new Long[size];
+        int i = 0;
+        for (Map.Entry<RollupKey, Long> entry : deltas.entrySet()) {
+            institutionIds[i] = entry.getKey().institutionId();
+            classroomIds[i] = entry.getKey().classroomId();
+            dates[i] = entry.getKey().date();
+            statuses[i] = entry.getKey().status().name();
+            counts[i] = entry.getValue();
+            i++;
+        }
+        return attendanceRepository.adjustDailyRollup(institutionIds, classroomIds, dates, statuses, counts).then();
+    }
+
+    private record RollupKey(String institutionId, String classroomId, LocalDate date, AttendanceStatus status) {
+
+        static RollupKey of(AttendanceRecord record, AttendanceStatus status) {
+            return new RollupKey(record.getInstitutionId(), record.getClassroomId(), record.getAttendanceDate(), status);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.rollup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Comando de reconstrucción del resumen diario:
+ * {@code POST /actuator/attendancerollup} con {@code {"startDate": "...", "endDate": "..."}} opcionales.
+ * Sin fechas reconstruye todo el resumen. Bloquea las escrituras de asistencia mientras dura, por eso no se
+ * publica por HTTP por defecto (management.endpoints.web.exposure.exclude).
+ */
+@Component
+@Endpoint(id = "attendancerollup")
+@RequiredArgsConstructor
+public class AttendanceRollupEndpoint {
+
+    private final AttendanceDailyRollup attendanceDailyRollup;
+
+    @WriteOperation
+    public Mono<Map<String, Object>> rebuild(@Nullable String startDate, @Nullable String endDate) {
+        return Mono.fromCallable(() -> new LocalDate[] {parse(startDate), parse(endDate)})
+                .flatMap(range -> attendanceDailyRollup.rebuild(range[0], range[1]))
+                .map(rows -> Map.of("rebuiltRows", rows));
+    }
+
+    private static LocalDate parse(String date) {
+        if (date == null || date.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha no válida: " + date + " (formato esperado yyyy-MM-dd)");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.stats;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Desglose de las estadísticas de aula e institución: sin desglose, por día o por semana (lunes a domingo).
+ */
+public enum StatsGranularity {
+    NONE(null),
+    DAY("day"),
+    WEEK("week");
+
+    // Unidad de date_trunc en PostgreSQL
+    private final String truncUnit;
+
+    StatsGranularity(String truncUnit) {
+        this.truncUnit = truncUnit;
+    }
+
+    public String truncUnit() {
+        return truncUnit;
+    }
+
+    public LocalDate periodEnd(LocalDate periodStart) {
+        return this == WEEK ? periodStart.plusDays(6) : periodStart;
+    }
+
+    public static StatsGranularity of(String value) {
+        if (value == null || value.isBlank()) {
+            return NONE;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor no válido para groupBy: " + value + ". Valores permitidos: none, day, week");
+        }
+    }
+}
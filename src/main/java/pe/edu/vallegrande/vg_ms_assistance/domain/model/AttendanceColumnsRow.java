@@ -0,0 +1,46 @@
+package pe.edu.vallegrande.vg_ms_assistance.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Column;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Columnas que guarda el almacén analítico en memoria por cada registro. Proyección de solo lectura;
+ * los registros guardados llegan al almacén convertidos con {@link #of(AttendanceRecord)}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceColumnsRow {
+
+    @Column("id")
+    private UUID id;
+
+    @Column("student_id")
+    private String studentId;
+
+    @Column("classroom_id")
+    private String classroomId;
+
+    @Column("attendance_date")
+    private LocalDate attendanceDate;
+
+    @Column("attendance_status")
+    private AttendanceStatus attendanceStatus;
+
+    @Column("arrival_time")
+    private LocalTime arrivalTime;
+
+    public static AttendanceColumnsRow of(AttendanceRecord record) {
+        return new AttendanceColumnsRow(record.getId(), record.getStudentId(), record.getClassroomId(),
+                record.getAttendanceDate(), record.getAttendanceStatus(), record.getArrivalTime());
+    }
+}
@@ -0,0 +1,27 @@
+package pe.edu.vallegrande.vg_ms_assistance.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Column;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Fecha y estado de un registro: lo que necesita el bitmap de asistencia de un estudiante.
+ * Proyección de solo lectura.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceDateStatus {
+
+    @Column("attendance_date")
+    private LocalDate attendanceDate;
+
+    @Column("attendance_status")
+    private AttendanceStatus attendanceStatus;
+}
@@ -0,0 +1,73 @@
+package pe.edu.vallegrande.vg_ms_assistance.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Column;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Fila de los listados y la exportación: las columnas de {@code AttendanceRepository.LIST_COLUMNS}, sin los
+ * textos de justificación. Es una proyección de solo lectura; para modificar un registro se lee el
+ * {@link AttendanceRecord} completo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceListItem implements AttendanceNames {
+
+    @Column("id")
+    private UUID id;
+
+    @Column("student_id")
+    private String studentId;
+
+    @Column("student_name")
+    private String studentName;
+
+    @Column("classroom_id")
+    private String classroomId;
+
+    @Column("classroom_name")
+    private String classroomName;
+
+    @Column("institution_id")
+    private String institutionId;
+
+    @Column("institution_name")
+    private String institutionName;
+
+    @Column("attendance_date")
+    private LocalDate attendanceDate;
+
+    @Column("academic_year")
+    private Integer academicYear;
+
+    @Column("attendance_status")
+    private AttendanceStatus attendanceStatus;
+
+    @Column("arrival_time")
+    private LocalTime arrivalTime;
+
+    @Column("departure_time")
+    private LocalTime departureTime;
+
+    @Column("justified")
+    private Boolean justified;
+
+    @Column("registered_by")
+    private String registeredBy;
+
+    @Column("registered_at")
+    private LocalDateTime registeredAt;
+
+    @Column("updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,20 @@
+package pe.edu.vallegrande.vg_ms_assistance.domain.model;
+
+/**
+ * IDs de estudiante, aula e institución de un registro de asistencia junto con la copia de sus nombres.
+ * Es lo único que necesita el enriquecedor, tanto del registro completo como de una fila de listado.
+ */
+public interface AttendanceNames {
+
+    String getStudentId();
+
+    String getStudentName();
+
+    String getClassroomId();
+
+    String getClassroomName();
+
+    String getInstitutionId();
+
+    String getInstitutionName();
+}
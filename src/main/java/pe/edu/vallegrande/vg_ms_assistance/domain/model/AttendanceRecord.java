@@ -19,7 +19,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table("attendance_records")
-public class AttendanceRecord {
+public class AttendanceRecord implements AttendanceNames {
     
     @Id
     private UUID id;
@@ -27,12 +27,22 @@ public class AttendanceRecord {
     @Column("student_id")
     private String studentId;
     
+    // Nombre del estudiante al momento del registro (lo actualiza AttendanceNameReconciler)
+    @Column("student_name")
+    private String studentName;
+    
     @Column("classroom_id")
     private String classroomId;
     
+    @Column("classroom_name")
+    private String classroomName;
+    
     @Column("institution_id")
     private String institutionId;
     
+    @Column("institution_name")
+    private String institutionName;
+    
     @Column("attendance_date")
     private LocalDate attendanceDate;
     
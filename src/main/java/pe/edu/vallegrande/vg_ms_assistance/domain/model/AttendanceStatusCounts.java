@@ -0,0 +1,54 @@
+package pe.edu.vallegrande.vg_ms_assistance.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Column;
+
+import java.time.LocalDate;
+
+/**
+ * Conteos por estado calculados en una sola consulta de agregación sobre attendance_records.
+ * studentId y studentName solo vienen informados en las consultas agrupadas por estudiante, periodStart
+ * en las filas de desglose por periodo, y groupKey y averageArrivalMinute en las del tablero de institución.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceStatusCounts {
+
+    @Column("student_id")
+    private String studentId;
+
+    @Column("student_name")
+    private String studentName;
+
+    @Column("period_start")
+    private LocalDate periodStart;
+
+    @Column("group_key")
+    private String groupKey;
+
+    @Column("average_arrival_minute")
+    private Integer averageArrivalMinute;
+
+    @Column("total_records")
+    private long totalRecords;
+
+    @Column("present_count")
+    private long presentCount;
+
+    @Column("absent_count")
+    private long absentCount;
+
+    @Column("late_count")
+    private long lateCount;
+
+    @Column("justified_count")
+    private long justifiedCount;
+
+    @Column("permission_count")
+    private long permissionCount;
+}
@@ -0,0 +1,76 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.vallegrande.vg_ms_assistance.application.config.ReferenceCacheProperties;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Caché acotada en memoria para datos de referencia (nombres de estudiantes, aulas e instituciones).
+ * Las entradas expiran por TTL y también se guardan los IDs no encontrados (caché negativa)
+ * para no repetir la llamada remota. Los errores de red no se guardan.
+ * En un fallo de caché, las consultas concurrentes por el mismo ID comparten una sola llamada ({@link SingleFlight}).
+ * Las estadísticas se publican como métricas {@code cache.*} con el tag {@code cache=<name>}.
+ */
+@Slf4j
+public class ReferenceDataCache<V> {
+
+    private final String name;
+    private final Cache<String, Optional<V>> cache;
+    private final SingleFlight<String, V> inFlight = new SingleFlight<>();
+
+    public ReferenceDataCache(String name, ReferenceCacheProperties.Spec spec, MeterRegistry meterRegistry) {
+        this(name, spec, meterRegistry, Ticker.systemTicker());
+    }
+
+    // El reloj se puede reemplazar en las pruebas de expiración
+    ReferenceDataCache(String name, ReferenceCacheProperties.Spec spec, MeterRegistry meterRegistry, Ticker ticker) {
+        this.name = name;
+        this.cache = Caffeine.newBuilder()
+                .ticker(ticker)
+                .maximumSize(spec.getMaximumSize())
+                .expireAfter(new PresenceAwareExpiry<V>(spec.getTtl().toNanos(), spec.getNegativeTtl().toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    public Mono<V> get(String key, Function<String, Mono<V>> loader) {
+        return Mono.defer(() -> {
+            Optional<V> cached = cache.getIfPresent(key);
+            if (cached != null) {
+                log.debug("[CACHE] {} hit for {}", name, key);
+                return Mono.justOrEmpty(cached);
+            }
+            return inFlight.execute(key, k -> loader.apply(k)
+                    .doOnNext(value -> cache.put(k, Optional.of(value)))
+                    .switchIfEmpty(Mono.fromRunnable(() -> cache.put(k, Optional.empty()))));
+        });
+    }
+
+    private record PresenceAwareExpiry<V>(long ttlNanos, long negativeTtlNanos) implements Expiry<String, Optional<V>> {
+
+        @Override
+        public long expireAfterCreate(String key, Optional<V> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<V> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<V> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.cache;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Agrupa las consultas concurrentes por la misma clave: mientras una consulta está en curso,
+ * los demás suscriptores reciben el mismo {@link Mono} en lugar de abrir otra llamada remota.
+ * Cuando la consulta termina (con valor, vacía o con error) la clave se libera.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    public Mono<V> execute(K key, Function<K, Mono<V>> loader) {
+        return Mono.defer(() -> {
+            Mono<V> existing = inFlight.get(key);
+            if (existing != null) {
+                return existing;
+            }
+
+            AtomicReference<Mono<V>> self = new AtomicReference<>();
+            Mono<V> shared = Mono.defer(() -> loader.apply(key))
+                    .doFinally(signal -> inFlight.remove(key, self.get()))
+                    .share();
+            self.set(shared);
+
+            Mono<V> winner = inFlight.putIfAbsent(key, shared);
+            return winner != null ? winner : shared;
+        });
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+}
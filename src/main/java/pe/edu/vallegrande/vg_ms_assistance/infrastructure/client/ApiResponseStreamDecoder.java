@@ -0,0 +1,160 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodifica de forma incremental el campo {@code data} del sobre {@code {success, message, data}}
+ * que devuelven los microservicios. Cada DTO se emite en cuanto termina de llegar su JSON, sin esperar
+ * el cuerpo completo, y solo se piden más buffers de red cuando el suscriptor pide más elementos.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApiResponseStreamDecoder {
+
+    private final ObjectMapper objectMapper;
+
+    public <T> Flux<T> decodeData(Flux<DataBuffer> body, Class<T> type) {
+        return Flux.defer(() -> {
+            DataTokenizer<T> tokenizer = new DataTokenizer<>(objectMapper, objectMapper.readerFor(type));
+            return body
+                    .flatMapIterable(tokenizer::feed, 1)
+                    .concatWith(Mono.fromCallable(tokenizer::endOfInput).flatMapIterable(decoded -> decoded))
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .doFinally(signal -> tokenizer.close());
+        });
+    }
+
+    private enum State { ENVELOPE, DATA_VALUE, DATA_ARRAY }
+
+    private static final class DataTokenizer<T> {
+
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private final ObjectReader reader;
+
+        private State state = State.ENVELOPE;
+        private int depth;
+        private TokenBuffer element;
+        private int elementBaseDepth;
+        private State stateAfterElement;
+
+        DataTokenizer(ObjectMapper objectMapper, ObjectReader reader) {
+            try {
+                this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+            this.reader = reader;
+        }
+
+        List<T> feed(DataBuffer buffer) {
+            try {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                feeder.feedInput(bytes, 0, bytes.length);
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        List<T> endOfInput() throws IOException {
+            feeder.endOfInput();
+            return drain();
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // No hay nada que liberar fuera del propio parser
+            }
+        }
+
+        private List<T> drain() throws IOException {
+            List<T> decoded = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+
+                if (element != null) {
+                    element.copyCurrentEvent(parser);
+                    if (depth == elementBaseDepth) {
+                        bindElement(decoded);
+                    }
+                    continue;
+                }
+
+                switch (state) {
+                    case ENVELOPE -> {
+                        if (token == JsonToken.FIELD_NAME && depth == 1 && "data".equals(parser.currentName())) {
+                            state = State.DATA_VALUE;
+                        }
+                    }
+                    case DATA_VALUE -> {
+                        if (token == JsonToken.START_ARRAY) {
+                            state = State.DATA_ARRAY;
+                        } else if (token == JsonToken.START_OBJECT) {
+                            // "data" es un objeto único
+                            startElement(token, State.ENVELOPE, decoded);
+                        } else {
+                            state = State.ENVELOPE;
+                        }
+                    }
+                    case DATA_ARRAY -> {
+                        if (token == JsonToken.END_ARRAY) {
+                            state = State.ENVELOPE;
+                        } else if (token != JsonToken.VALUE_NULL) {
+                            startElement(token, State.DATA_ARRAY, decoded);
+                        }
+                    }
+                }
+            }
+            return decoded;
+        }
+
+        private void startElement(JsonToken token, State next, List<T> decoded) throws IOException {
+            element = new TokenBuffer(parser);
+            element.copyCurrentEvent(parser);
+            elementBaseDepth = token.isStructStart() ? depth - 1 : depth;
+            stateAfterElement = next;
+            if (!token.isStructStart()) {
+                bindElement(decoded);
+            }
+        }
+
+        private void bindElement(List<T> decoded) throws IOException {
+            try (JsonParser elementParser = element.asParser()) {
+                T value = reader.readValue(elementParser);
+                if (value != null) {
+                    decoded.add(value);
+                }
+            }
+            element = null;
+            state = stateAfterElement;
+        }
+    }
+}
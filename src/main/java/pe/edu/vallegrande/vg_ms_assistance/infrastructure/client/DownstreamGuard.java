@@ -0,0 +1,132 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import pe.edu.vallegrande.vg_ms_assistance.application.config.ExternalServicesProperties;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Protege las llamadas a un microservicio externo con un circuit breaker y un bulkhead de concurrencia.
+ * Con el circuito abierto o el bulkhead lleno la llamada falla de inmediato, sin esperar al servicio remoto.
+ * Las consultas por ID tienen además un deadline propio y, si está habilitado, hedging: cuando la primera
+ * petición supera el percentil configurado de latencia se envía una segunda y se usa la primera que responda
+ * bien. El percentil se calcula con la latencia de la primera petición desde que empezó la consulta, también
+ * cuando falla, vence el deadline o se cancela porque ganó la segunda, para que el retraso del hedging no se
+ * vaya achicando con solo las llamadas rápidas.
+ */
+public class DownstreamGuard {
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Duration deadline;
+    private final ExternalServicesProperties.Hedging hedging;
+    private final LatencyWindow latencyWindow;
+    private final Timer latency;
+    private final Counter hedgesSent;
+    private final Counter hedgeWins;
+
+    public DownstreamGuard(String name,
+                           CircuitBreaker circuitBreaker,
+                           Bulkhead bulkhead,
+                           ExternalServicesProperties.Service service,
+                           MeterRegistry meterRegistry) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.deadline = service.getDeadline();
+        this.hedging = service.getHedging();
+        this.latencyWindow = new LatencyWindow(hedging.getWindow(), hedging.getPercentile());
+        this.latency = Timer.builder("downstream.lookup.latency").tag("name", name).register(meterRegistry);
+        this.hedgesSent = Counter.builder("downstream.hedge.sent").tag("name", name).register(meterRegistry);
+        this.hedgeWins = Counter.builder("downstream.hedge.wins").tag("name", name).register(meterRegistry);
+    }
+
+    /**
+     * Consulta por ID con deadline y, si está habilitado, hedging. El proveedor debe crear una petición
+     * nueva cada vez que se invoca (solo para operaciones idempotentes).
+     */
+    public <T> Mono<T> lookup(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Mono<T> primary = onEnd(leg(call, deadline), () -> latencyWindow.record(System.nanoTime() - start));
+            Mono<T> result = hedging.isEnabled() ? hedged(call, primary, start) : primary;
+            return onEnd(result, () -> latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    // Gana la primera respuesta correcta (con valor o vacía). El error de una petición se ignora mientras
+    // la otra siga en curso; si la primera falla antes de enviar la segunda, el error sale de inmediato.
+    // La segunda petición solo tiene lo que queda del deadline de la consulta, así que ninguna de las dos
+    // pasa de start + deadline; si ya no queda tiempo no se envía
+    private <T> Mono<T> hedged(Supplier<Mono<T>> call, Mono<T> primary, long start) {
+        AtomicBoolean hedgeSent = new AtomicBoolean();
+        AtomicInteger failures = new AtomicInteger();
+        Mono<T> primaryLeg = primary
+                .onErrorResume(error -> hedgeSent.get() && failures.incrementAndGet() < 2
+                        ? Mono.never()
+                        : Mono.error(error));
+        Mono<T> hedgeLeg = Mono.delay(hedgeDelay())
+                .flatMap(tick -> {
+                    Duration remaining = deadline.minusNanos(System.nanoTime() - start);
+                    if (remaining.isNegative() || remaining.isZero()) {
+                        return Mono.<T>never();
+                    }
+                    hedgeSent.set(true);
+                    hedgesSent.increment();
+                    // Si termina bien es que respondió primero (la que pierde se cancela), también vacía
+                    return leg(call, remaining).doOnSuccess(value -> hedgeWins.increment());
+                })
+                .onErrorResume(error -> failures.incrementAndGet() < 2 ? Mono.never() : Mono.error(error));
+        return Mono.firstWithSignal(primaryLeg, hedgeLeg);
+    }
+
+    public <T> Mono<T> protect(Mono<T> call) {
+        return call
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    public <T> Flux<T> protect(Flux<T> call) {
+        return call
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    // Indica si la llamada fue rechazada localmente (circuito abierto o bulkhead lleno)
+    public static boolean isRejected(Throwable error) {
+        return error instanceof CallNotPermittedException || error instanceof BulkheadFullException;
+    }
+
+    // El timeout va dentro del circuit breaker para que cuente como fallo de la llamada
+    private <T> Mono<T> leg(Supplier<Mono<T>> call, Duration timeout) {
+        return Mono.defer(() -> protect(call.get().timeout(timeout)));
+    }
+
+    // Con valor, vacía, con error o cancelada; antes de pasar la señal, para que ya conste al responder
+    private static <T> Mono<T> onEnd(Mono<T> call, Runnable action) {
+        return call.doOnTerminate(action).doOnCancel(action);
+    }
+
+    Duration hedgeDelay() {
+        long observed = latencyWindow.percentileNanos();
+        if (observed < 0) {
+            return hedging.getInitialDelay();
+        }
+        long min = hedging.getMinDelay().toNanos();
+        long max = hedging.getMaxDelay().toNanos();
+        return Duration.ofNanos(Math.max(min, Math.min(max, observed)));
+    }
+}
@@ -2,34 +2,51 @@ package pe.edu.vallegrande.vg_ms_assistance.infrastructure.client;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.cache.ReferenceDataCache;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.ClassroomDTO;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.InstitutionDTO;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class InstitutionClient {
 
-    private final WebClient.Builder webClientBuilder;
-
-    @Value("${external.services.institution.url:http://localhost:9080}")
-    private String institutionServiceUrl;
+    @Qualifier("institutionWebClient")
+    private final WebClient institutionWebClient;
+    private final ReferenceDataCache<InstitutionDTO> institutionCache;
+    private final ReferenceDataCache<ClassroomDTO> classroomCache;
+    private final ApiResponseStreamDecoder apiResponseStreamDecoder;
+    @Qualifier("institutionServiceGuard")
+    private final DownstreamGuard institutionServiceGuard;
 
     public Mono<InstitutionDTO> getInstitutionById(String institutionId) {
-        return webClientBuilder.build()
+        return institutionCache.get(institutionId, this::fetchInstitutionById)
+                .doOnError(error -> {
+                    if (!DownstreamGuard.isRejected(error)) {
+                        log.error("Error fetching institution {}: {}", institutionId, error.getMessage());
+                    }
+                })
+                .onErrorResume(error -> Mono.empty());
+    }
+
+    private Mono<InstitutionDTO> fetchInstitutionById(String institutionId) {
+        return institutionServiceGuard.lookup(() -> institutionWebClient
                 .get()
-                .uri(institutionServiceUrl + "/api/v1/institutions/" + institutionId)
+                .uri("/api/v1/institutions/{institutionId}", institutionId)
                 .retrieve()
                 .bodyToMono(new org.springframework.core.ParameterizedTypeReference<pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.ApiResponse<InstitutionDTO>>() {})
                 .flatMap(response -> {
                     if (response != null) {
-                        List<InstitutionDTO> dataList = response.getDataAsList(InstitutionDTO.class);
+                        List<InstitutionDTO> dataList = response.getDataAsList();
                         if (!dataList.isEmpty()) {
                             return Mono.just(dataList.get(0));
                         }
@@ -37,27 +54,17 @@ public class InstitutionClient {
                     log.warn("No institution data received for institutionId: {}", institutionId);
                     return Mono.empty();
                 })
-                .doOnError(error -> log.error("Error fetching institution {}: {}", institutionId, error.getMessage()))
-                .onErrorResume(error -> Mono.empty());
+                .onErrorResume(WebClientResponseException.NotFound.class, error -> Mono.empty()));
     }
 
     public Flux<InstitutionDTO> getAllInstitutions() {
-        return webClientBuilder.build()
+        return institutionWebClient
                 .get()
-                .uri(institutionServiceUrl + "/api/v1/institutions")
+                .uri("/api/v1/institutions")
                 .retrieve()
-                .bodyToMono(
-                        new org.springframework.core.ParameterizedTypeReference<pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.ApiResponse<InstitutionDTO>>() {
-                        })
-                .flatMapMany(response -> {
-                    if (response != null) {
-                        List<InstitutionDTO> dataList = response.getDataAsList(InstitutionDTO.class);
-                        log.debug("Received {} institutions from service", dataList.size());
-                        return Flux.fromIterable(dataList);
-                    }
-                    log.warn("No institutions data received from service");
-                    return Flux.empty();
-                })
+                .bodyToFlux(DataBuffer.class)
+                .transform(body -> apiResponseStreamDecoder.decodeData(body, InstitutionDTO.class))
+                .transform(institutionServiceGuard::protect)
                 .doOnNext(institution -> log.debug("Institution: institutionId={}",
                         institution.getInstitutionId()))
                 .doOnError(error -> log.error("Error fetching institutions: {}", error.getMessage()))
@@ -65,14 +72,24 @@ public class InstitutionClient {
     }
 
     public Mono<ClassroomDTO> getClassroomById(String classroomId) {
-        return webClientBuilder.build()
+        return classroomCache.get(classroomId, this::fetchClassroomById)
+                .doOnError(error -> {
+                    if (!DownstreamGuard.isRejected(error)) {
+                        log.error("Error fetching classroom {}: {}", classroomId, error.getMessage());
+                    }
+                })
+                .onErrorResume(error -> Mono.empty());
+    }
+
+    private Mono<ClassroomDTO> fetchClassroomById(String classroomId) {
+        return institutionServiceGuard.lookup(() -> institutionWebClient
                 .get()
-                .uri(institutionServiceUrl + "/api/v1/classrooms/" + classroomId)
+                .uri("/api/v1/classrooms/{classroomId}", classroomId)
                 .retrieve()
                 .bodyToMono(new org.springframework.core.ParameterizedTypeReference<pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.ApiResponse<ClassroomDTO>>() {})
                 .flatMap(response -> {
                     if (response != null) {
-                        List<ClassroomDTO> dataList = response.getDataAsList(ClassroomDTO.class);
+                        List<ClassroomDTO> dataList = response.getDataAsList();
                         if (!dataList.isEmpty()) {
                             return Mono.just(dataList.get(0));
                         }
@@ -80,27 +97,17 @@ public class InstitutionClient {
                     log.warn("No classroom data received for classroomId: {}", classroomId);
                     return Mono.empty();
                 })
-                .doOnError(error -> log.error("Error fetching classroom {}: {}", classroomId, error.getMessage()))
-                .onErrorResume(error -> Mono.empty());
+                .onErrorResume(WebClientResponseException.NotFound.class, error -> Mono.empty()));
     }
 
     public Flux<ClassroomDTO> getAllClassrooms() {
-        return webClientBuilder.build()
+        return institutionWebClient
                 .get()
-                .uri(institutionServiceUrl + "/api/v1/classrooms")
+                .uri("/api/v1/classrooms")
                 .retrieve()
-                .bodyToMono(
-                        new org.springframework.core.ParameterizedTypeReference<pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.ApiResponse<ClassroomDTO>>() {
-                        })
-                .flatMapMany(response -> {
-                    if (response != null) {
-                        List<ClassroomDTO> dataList = response.getDataAsList(ClassroomDTO.class);
-                        log.debug("Received {} classrooms from service", dataList.size());
-                        return Flux.fromIterable(dataList);
-                    }
-                    log.warn("No classrooms data received from service");
-                    return Flux.empty();
-                })
+                .bodyToFlux(DataBuffer.class)
+                .transform(body -> apiResponseStreamDecoder.decodeData(body, ClassroomDTO.class))
+                .transform(institutionServiceGuard::protect)
                 .doOnNext(classroom -> log.debug("Classroom: classroomId={}, classroomName={}",
                         classroom.getClassroomId(), classroom.getClassroomName()))
                 .doOnError(error -> log.error("Error fetching classrooms: {}", error.getMessage()))
@@ -108,28 +115,25 @@ public class InstitutionClient {
     }
 
     public Flux<ClassroomDTO> getClassroomsByInstitution(String institutionId) {
-        return webClientBuilder.build()
+        // Si el stream ya emitió elementos antes de fallar, no se usa el fallback para no duplicarlos
+        AtomicBoolean emitted = new AtomicBoolean();
+        return institutionWebClient
                 .get()
-                .uri(institutionServiceUrl + "/api/v1/classrooms/institution/" + institutionId)
+                .uri("/api/v1/classrooms/institution/{institutionId}", institutionId)
                 .retrieve()
-                .bodyToMono(
-                        new org.springframework.core.ParameterizedTypeReference<pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.ApiResponse<ClassroomDTO>>() {
-                        })
-                .flatMapMany(response -> {
-                    if (response != null) {
-                        List<ClassroomDTO> dataList = response.getDataAsList(ClassroomDTO.class);
-                        log.debug("Received {} classrooms from institution {}", dataList.size(),
-                                institutionId);
-                        return Flux.fromIterable(dataList);
-                    }
-                    log.warn("No classrooms data received for institution {}", institutionId);
-                    return Flux.empty();
-                })
+                .bodyToFlux(DataBuffer.class)
+                .transform(body -> apiResponseStreamDecoder.decodeData(body, ClassroomDTO.class))
+                .transform(institutionServiceGuard::protect)
+                .doOnNext(item -> emitted.set(true))
                 .doOnError(error -> {
                     log.warn("Error fetching classrooms by institution endpoint, will try fallback: {}",
                             error.getMessage());
                 })
                 .onErrorResume(error -> {
+                    if (emitted.get()) {
+                        log.error("Stream of classrooms by institution {} failed midway: {}", institutionId, error.getMessage());
+                        return Flux.empty();
+                    }
                     // Fallback: obtener todas las aulas y filtrar por institutionId
                     log.info("Using fallback: filtering all classrooms by institutionId");
                     return getAllClassrooms()
@@ -0,0 +1,43 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.client;
+
+import java.util.Arrays;
+
+/**
+ * Ventana circular con las últimas latencias observadas de un servicio remoto.
+ * El percentil se recalcula cada {@code RECOMPUTE_EVERY} muestras para no ordenar en cada llamada.
+ */
+final class LatencyWindow {
+
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final long[] samples;
+    private final double percentile;
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private volatile long percentileNanos = -1;
+
+    LatencyWindow(int size, double percentile) {
+        this.samples = new long[size];
+        this.percentile = percentile;
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        if (++sinceRecompute >= RECOMPUTE_EVERY) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            percentileNanos = sorted[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+        }
+    }
+
+    // -1 mientras no haya suficientes muestras
+    long percentileNanos() {
+        return percentileNanos;
+    }
+}
@@ -2,35 +2,51 @@ package pe.edu.vallegrande.vg_ms_assistance.infrastructure.client;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.cache.ReferenceDataCache;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.StudentDTO;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class StudentClient {
 
-    private final WebClient.Builder webClientBuilder;
-
-    @Value("${external.services.student.url:http://localhost:9081}")
-    private String studentServiceUrl;
+    @Qualifier("studentWebClient")
+    private final WebClient studentWebClient;
+    private final ReferenceDataCache<StudentDTO> studentCache;
+    private final ApiResponseStreamDecoder apiResponseStreamDecoder;
+    @Qualifier("studentServiceGuard")
+    private final DownstreamGuard studentServiceGuard;
 
     public Mono<StudentDTO> getStudentById(String studentId) {
-        return webClientBuilder.build()
+        return studentCache.get(studentId, this::fetchStudentById)
+                .doOnError(error -> {
+                    if (!DownstreamGuard.isRejected(error)) {
+                        log.error("Error fetching student {}: {}", studentId, error.getMessage());
+                    }
+                })
+                .onErrorResume(error -> Mono.empty());
+    }
+
+    private Mono<StudentDTO> fetchStudentById(String studentId) {
+        return studentServiceGuard.lookup(() -> studentWebClient
                 .get()
-                .uri(studentServiceUrl + "/api/v1/students/" + studentId)
+                .uri("/api/v1/students/{studentId}", studentId)
                 .retrieve()
                 .bodyToMono(
                         new org.springframework.core.ParameterizedTypeReference<pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.ApiResponse<StudentDTO>>() {
                         })
                 .flatMap(response -> {
                     if (response != null) {
-                        List<StudentDTO> dataList = response.getDataAsList(StudentDTO.class);
+                        List<StudentDTO> dataList = response.getDataAsList();
                         if (!dataList.isEmpty()) {
                             StudentDTO student = dataList.get(0);
                             log.debug("[CLIENT] Student received: id={}, personalInfo={}",
@@ -46,27 +62,17 @@ public class StudentClient {
                     log.warn("No student data received for studentId: {}", studentId);
                     return Mono.empty();
                 })
-                .doOnError(error -> log.error("Error fetching student {}: {}", studentId, error.getMessage()))
-                .onErrorResume(error -> Mono.empty());
+                .onErrorResume(WebClientResponseException.NotFound.class, error -> Mono.empty()));
     }
 
     public Flux<StudentDTO> getAllStudents() {
-        return webClientBuilder.build()
+        return studentWebClient
                 .get()
-                .uri(studentServiceUrl + "/api/v1/students")
+                .uri("/api/v1/students")
                 .retrieve()
-                .bodyToMono(
-                        new org.springframework.core.ParameterizedTypeReference<pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.ApiResponse<StudentDTO>>() {
-                        })
-                .flatMapMany(response -> {
-                    if (response != null) {
-                        List<StudentDTO> dataList = response.getDataAsList(StudentDTO.class);
-                        log.debug("Received {} students from service", dataList.size());
-                        return Flux.fromIterable(dataList);
-                    }
-                    log.warn("No students data received from service");
-                    return Flux.empty();
-                })
+                .bodyToFlux(DataBuffer.class)
+                .transform(body -> apiResponseStreamDecoder.decodeData(body, StudentDTO.class))
+                .transform(studentServiceGuard::protect)
                 .doOnNext(student -> log.debug("Student: studentId={}, names={}",
                         student.getStudentId(),
                         student.getPersonalInfo() != null ? student.getPersonalInfo().getNames() : "null"))
@@ -81,27 +87,25 @@ public class StudentClient {
     }
 
     public Flux<StudentDTO> getStudentsByInstitution(String institutionId) {
-        return webClientBuilder.build()
+        // Si el stream ya emitió elementos antes de fallar, no se usa el fallback para no duplicarlos
+        AtomicBoolean emitted = new AtomicBoolean();
+        return studentWebClient
                 .get()
-                .uri(studentServiceUrl + "/api/v1/students/institution/" + institutionId)
+                .uri("/api/v1/students/institution/{institutionId}", institutionId)
                 .retrieve()
-                .bodyToMono(
-                        new org.springframework.core.ParameterizedTypeReference<pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.ApiResponse<StudentDTO>>() {
-                        })
-                .flatMapMany(response -> {
-                    if (response != null) {
-                        List<StudentDTO> dataList = response.getDataAsList(StudentDTO.class);
-                        log.debug("Received {} students from institution {}", dataList.size(), institutionId);
-                        return Flux.fromIterable(dataList);
-                    }
-                    log.warn("No students data received for institution {}", institutionId);
-                    return Flux.empty();
-                })
+                .bodyToFlux(DataBuffer.class)
+                .transform(body -> apiResponseStreamDecoder.decodeData(body, StudentDTO.class))
+                .transform(studentServiceGuard::protect)
+                .doOnNext(item -> emitted.set(true))
                 .doOnError(error -> {
                     log.warn("Error fetching students by institution endpoint, will try fallback: {}",
                             error.getMessage());
                 })
                 .onErrorResume(error -> {
+                    if (emitted.get()) {
+                        log.error("Stream of students by institution {} failed midway: {}", institutionId, error.getMessage());
+                        return Flux.empty();
+                    }
                     // Fallback: obtener todos los estudiantes y filtrar por institutionId
                     log.info("Using fallback: filtering all students by institutionId");
                     return getAllStudents()
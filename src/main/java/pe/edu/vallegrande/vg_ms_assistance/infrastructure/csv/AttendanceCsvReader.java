@@ -0,0 +1,230 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.csv;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.request.AttendanceImportRow;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.request.AttendanceRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Lee un CSV de asistencia a medida que llegan los bytes: separa líneas sin cargar el archivo, junta las
+ * líneas de un campo entre comillas con saltos de línea y convierte cada fila en un {@link AttendanceRequest}.
+ * Las columnas se buscan por el nombre de la cabecera, sin distinguir mayúsculas ni guiones bajos
+ * (studentId o student_id); las columnas desconocidas se ignoran, así que también acepta un archivo exportado.
+ * Un valor que no se puede convertir no corta la lectura: la fila sale con su error.
+ */
+public final class AttendanceCsvReader {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of(
+            "studentId", "classroomId", "institutionId", "attendanceDate", "academicYear", "attendanceStatus");
+    private static final int MAX_LINE_BYTES = 64 * 1024;
+    private static final ResolvableType STRING_TYPE = ResolvableType.forClass(String.class);
+
+    private AttendanceCsvReader() {
+    }
+
+    /**
+     * @param defaultRegisteredBy usuario que registra cuando el archivo no trae la columna registeredBy
+     *                            o la deja vacía (puede ser null)
+     */
+    public static Flux<AttendanceImportRow> read(Flux<DataBuffer> content, String defaultRegisteredBy) {
+        StringDecoder lines = StringDecoder.allMimeTypes(List.of("\n"), true);
+        lines.setMaxInMemorySize(MAX_LINE_BYTES);
+        return Flux.defer(() -> {
+            RowAssembler assembler = new RowAssembler(defaultRegisteredBy);
+            return lines.decode(content, STRING_TYPE, null, null)
+                    .<AttendanceImportRow>handle(assembler::accept)
+                    .concatWith(Flux.defer(assembler::finish));
+        });
+    }
+
+    // Estado de una lectura: cabecera, número de línea y la fila que sigue abierta por un campo entre comillas
+    private static final class RowAssembler {
+
+        private final String defaultRegisteredBy;
+        private Map<String, Integer> columns;
+        private int columnCount;
+        private long lineNumber;
+        private long rowStart;
+        private StringBuilder pending;
+        private int pendingQuotes;
+
+        RowAssembler(String defaultRegisteredBy) {
+            this.defaultRegisteredBy = blankToNull(defaultRegisteredBy);
+        }
+
+        void accept(String line, SynchronousSink<AttendanceImportRow> sink) {
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            if (line.endsWith("\r")) {
+                line = line.substring(0, line.length() - 1);
+            }
+            if (pending == null) {
+                if (line.isBlank()) {
+                    return;
+                }
+                pending = new StringBuilder(line);
+                pendingQuotes = 0;
+                rowStart = lineNumber;
+            } else {
+                pending.append('\n').append(line);
+            }
+            pendingQuotes += countQuotes(line);
+            // Con comillas impares la fila continúa en la siguiente línea
+            if (pendingQuotes % 2 != 0) {
+                return;
+            }
+            List<String> fields = parseFields(pending);
+            pending = null;
+
+            if (columns == null) {
+                try {
+                    readHeader(fields);
+                } catch (IllegalArgumentException e) {
+                    sink.error(e);
+                }
+                return;
+            }
+            sink.next(toRow(rowStart, fields));
+        }
+
+        Flux<AttendanceImportRow> finish() {
+            if (columns == null) {
+                return Flux.error(new IllegalArgumentException("El archivo CSV está vacío o no tiene cabecera"));
+            }
+            if (pending != null) {
+                return Flux.just(new AttendanceImportRow(rowStart, new AttendanceRequest(), "Comillas sin cerrar en la fila"));
+            }
+            return Flux.empty();
+        }
+
+        private void readHeader(List<String> header) {
+            columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.putIfAbsent(normalize(header.get(i)), i);
+            }
+            columnCount = header.size();
+            List<String> missing = new ArrayList<>(REQUIRED_COLUMNS.stream()
+                    .filter(column -> !columns.containsKey(normalize(column)))
+                    .toList());
+            if (defaultRegisteredBy == null && !columns.containsKey(normalize("registeredBy"))) {
+                missing.add("registeredBy");
+            }
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("Faltan columnas en la cabecera del CSV: " + String.join(", ", missing));
+            }
+        }
+
+        private AttendanceImportRow toRow(long line, List<String> fields) {
+            List<String> errors = new ArrayList<>();
+            if (fields.size() != columnCount) {
+                errors.add("La fila tiene " + fields.size() + " columnas y la cabecera " + columnCount);
+            }
+            String registeredBy = value(fields, "registeredBy");
+            AttendanceRequest request = AttendanceRequest.builder()
+                    .studentId(value(fields, "studentId"))
+                    .classroomId(value(fields, "classroomId"))
+                    .institutionId(value(fields, "institutionId"))
+                    .attendanceDate(convert(fields, "attendanceDate", LocalDate::parse, errors))
+                    .academicYear(convert(fields, "academicYear", Integer::valueOf, errors))
+                    .attendanceStatus(convert(fields, "attendanceStatus",
+                            status -> AttendanceStatus.valueOf(status.toUpperCase(Locale.ROOT)), errors))
+                    .arrivalTime(convert(fields, "arrivalTime", LocalTime::parse, errors))
+                    .departureTime(convert(fields, "departureTime", LocalTime::parse, errors))
+                    .justified(convert(fields, "justified", AttendanceCsvReader::parseBoolean, errors))
+                    .justificationReason(value(fields, "justificationReason"))
+                    .justificationDocumentUrl(value(fields, "justificationDocumentUrl"))
+                    .registeredBy(registeredBy != null ? registeredBy : defaultRegisteredBy)
+                    .build();
+            return new AttendanceImportRow(line, request, errors.isEmpty() ? null : String.join("; ", errors));
+        }
+
+        private String value(List<String> fields, String column) {
+            Integer index = columns.get(normalize(column));
+            return index == null || index >= fields.size() ? null : blankToNull(fields.get(index));
+        }
+
+        private <T> T convert(List<String> fields, String column, Function<String, T> parser, List<String> errors) {
+            String raw = value(fields, column);
+            if (raw == null) {
+                return null;
+            }
+            try {
+                return parser.apply(raw);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                errors.add("Valor no válido en " + column + ": " + raw);
+                return null;
+            }
+        }
+    }
+
+    // RFC 4180: separador coma, comillas dobles para campos con comas o saltos de línea y "" para una comilla
+    static List<String> parseFields(CharSequence row) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < row.length(); i++) {
+            char c = row.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < row.length() && row.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static int countQuotes(String line) {
+        int quotes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    private static Boolean parseBoolean(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "1", "si", "sí" -> true;
+            case "false", "0", "no" -> false;
+            default -> throw new IllegalArgumentException(value);
+        };
+    }
+
+    private static String normalize(String column) {
+        return column.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,107 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.csv;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.PooledDataBuffer;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.AttendanceResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Escribe registros de asistencia como CSV (RFC 4180, UTF-8 con BOM para que Excel respete las tildes).
+ * Los registros se codifican por bloques en buffers del {@link DataBufferFactory} de la respuesta (en Netty,
+ * buffers del pool) a medida que llegan, sin armar el archivo en memoria. La cabecera sale junto con el
+ * primer bloque: un error antes de la primera fila todavía puede responderse con su código de error.
+ */
+public final class AttendanceCsvWriter {
+
+    public static final String MEDIA_TYPE = "text/csv";
+
+    static final String[] COLUMNS = {
+            "id", "studentId", "studentName", "classroomId", "classroomName", "institutionId", "institutionName",
+            "attendanceDate", "academicYear", "attendanceStatus", "arrivalTime", "departureTime", "justified",
+            "registeredBy", "registeredAt", "updatedAt"};
+
+    // Bloques de ~10 KB: pocas escrituras al socket y poco encolado si el cliente lee lento
+    private static final int ROWS_PER_BUFFER = 64;
+    // Tamaño aproximado de una fila, para reservar el buffer de un bloque sin que tenga que crecer
+    private static final int ESTIMATED_ROW_BYTES = 256;
+    private static final String BOM = "\uFEFF";
+    private static final String HEADER = BOM + String.join(",", COLUMNS) + "\r\n";
+
+    private AttendanceCsvWriter() {
+    }
+
+    public static Flux<DataBuffer> write(Flux<AttendanceResponse> rows, DataBufferFactory bufferFactory) {
+        return Flux.defer(() -> {
+                    boolean[] headerWritten = {false};
+                    return rows.buffer(ROWS_PER_BUFFER)
+                            .map(chunk -> {
+                                StringBuilder text = new StringBuilder(chunk.size() * ESTIMATED_ROW_BYTES);
+                                if (!headerWritten[0]) {
+                                    text.append(HEADER);
+                                    headerWritten[0] = true;
+                                }
+                                appendRows(text, chunk);
+                                return encode(text, bufferFactory);
+                            })
+                            .switchIfEmpty(Mono.fromSupplier(() -> encode(HEADER, bufferFactory)));
+                })
+                .doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+    }
+
+    private static void appendRows(StringBuilder text, List<AttendanceResponse> rows) {
+        for (AttendanceResponse row : rows) {
+            appendField(text, row.getId(), true);
+            appendField(text, row.getStudentId(), false);
+            appendField(text, row.getStudentName(), false);
+            appendField(text, row.getClassroomId(), false);
+            appendField(text, row.getClassroomName(), false);
+            appendField(text, row.getInstitutionId(), false);
+            appendField(text, row.getInstitutionName(), false);
+            appendField(text, row.getAttendanceDate(), false);
+            appendField(text, row.getAcademicYear(), false);
+            appendField(text, row.getAttendanceStatus(), false);
+            appendField(text, row.getArrivalTime(), false);
+            appendField(text, row.getDepartureTime(), false);
+            appendField(text, row.getJustified(), false);
+            appendField(text, row.getRegisteredBy(), false);
+            appendField(text, row.getRegisteredAt(), false);
+            appendField(text, row.getUpdatedAt(), false);
+            text.append("\r\n");
+        }
+    }
+
+    // Vacío para null; entre comillas (duplicando las internas) si contiene separador, comillas o saltos de línea
+    static void appendField(StringBuilder text, Object value, boolean first) {
+        if (!first) {
+            text.append(',');
+        }
+        if (value == null) {
+            return;
+        }
+        String field = value.toString();
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            text.append(field);
+            return;
+        }
+        text.append('"');
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '"') {
+                text.append('"');
+            }
+            text.append(c);
+        }
+        text.append('"');
+    }
+
+    private static DataBuffer encode(CharSequence text, DataBufferFactory bufferFactory) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(text.length() + text.length() / 4);
+        return buffer.write(text, StandardCharsets.UTF_8);
+    }
+}
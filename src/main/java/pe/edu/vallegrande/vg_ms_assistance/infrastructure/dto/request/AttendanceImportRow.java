@@ -0,0 +1,9 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.request;
+
+/**
+ * Una fila del CSV de importación. {@code line} es la línea del archivo donde empieza la fila (la cabecera es
+ * la línea 1). Si algún valor no se pudo convertir, {@code error} indica el motivo y {@code request} trae solo
+ * lo que sí se pudo leer.
+ */
+public record AttendanceImportRow(long line, AttendanceRequest request, String error) {
+}
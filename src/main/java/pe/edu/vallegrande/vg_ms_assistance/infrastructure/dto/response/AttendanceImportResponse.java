@@ -0,0 +1,36 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceImportResponse {
+    private Long totalRows;
+    private Long importedCount;
+    private Long failedCount;
+    // Solo las filas rechazadas; las importadas se cuentan pero no se devuelven. Como mucho
+    // attendance.bulk.import-max-errors: si hubo más, errorsTruncated es true y failedCount tiene el total
+    private List<RowError> errors;
+    private Boolean errorsTruncated;
+    // Solo si la lectura del archivo se cortó antes del final; los contadores cubren lo leído hasta ahí
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String fileError;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private Long line;
+        private String studentId;
+        private String reason;
+    }
+}
@@ -1,5 +1,6 @@
 package pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -29,7 +30,11 @@ public class AttendanceResponse {
     private LocalTime arrivalTime;
     private LocalTime departureTime;
     private Boolean justified;
+    // Solo en el detalle por ID: los listados, los /stream y la exportación no leen estas columnas y las
+    // omiten del JSON (también se omiten en el detalle cuando el registro no tiene justificación)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String justificationReason;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String justificationDocumentUrl;
     private String registeredBy;
     private LocalDateTime registeredAt;
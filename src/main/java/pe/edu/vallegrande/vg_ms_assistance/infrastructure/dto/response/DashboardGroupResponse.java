@@ -0,0 +1,19 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardGroupResponse {
+    // ID del aula o del estudiante, o la fecha (yyyy-MM-dd) según groupBy
+    private String key;
+    private LocalTime averageArrivalTime;
+    private AttendanceStatsResponse stats;
+}
@@ -0,0 +1,21 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstitutionDashboardResponse {
+    private String institutionId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String groupBy;
+    private List<DashboardGroupResponse> groups;
+}
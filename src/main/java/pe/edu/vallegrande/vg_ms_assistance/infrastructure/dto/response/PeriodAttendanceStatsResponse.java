@@ -0,0 +1,18 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeriodAttendanceStatsResponse {
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private AttendanceStatsResponse stats;
+}
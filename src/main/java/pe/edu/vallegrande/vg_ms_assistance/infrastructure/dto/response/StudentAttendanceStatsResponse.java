@@ -0,0 +1,16 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentAttendanceStatsResponse {
+    private String studentId;
+    private String studentName;
+    private AttendanceStatsResponse stats;
+}
@@ -0,0 +1,26 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository;
+
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Inserciones que respetan el índice único (student_id, attendance_date) sin consultar antes.
+ */
+public interface AttendanceInsertRepository {
+
+    /**
+     * Inserta el registro con {@code ON CONFLICT DO NOTHING}. Devuelve el registro con su ID asignado,
+     * o vacío si ya existía uno para el mismo estudiante y fecha.
+     */
+    Mono<AttendanceRecord> insertIfAbsent(AttendanceRecord record);
+
+    /**
+     * Inserta todos los registros en un solo envío, como lote de parámetros de una misma sentencia
+     * ({@code Statement.add()}). Devuelve solo los registros insertados, con su ID; los que chocaron con
+     * un registro existente del mismo estudiante y fecha no se devuelven.
+     */
+    Flux<AttendanceRecord> insertAllIfAbsent(List<AttendanceRecord> records);
+}
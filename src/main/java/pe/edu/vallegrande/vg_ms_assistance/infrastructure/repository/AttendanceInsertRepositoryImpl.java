@@ -0,0 +1,123 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository;
+
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@RequiredArgsConstructor
+class AttendanceInsertRepositoryImpl implements AttendanceInsertRepository {
+
+    // Columnas que se insertan (el ID lo genera la base de datos)
+    static final List<InsertColumn<?>> COLUMNS = List.of(
+            new InsertColumn<>("student_id", String.class, AttendanceRecord::getStudentId),
+            new InsertColumn<>("student_name", String.class, AttendanceRecord::getStudentName),
+            new InsertColumn<>("classroom_id", String.class, AttendanceRecord::getClassroomId),
+            new InsertColumn<>("classroom_name", String.class, AttendanceRecord::getClassroomName),
+            new InsertColumn<>("institution_id", String.class, AttendanceRecord::getInstitutionId),
+            new InsertColumn<>("institution_name", String.class, AttendanceRecord::getInstitutionName),
+            new InsertColumn<>("attendance_date", LocalDate.class, AttendanceRecord::getAttendanceDate),
+            new InsertColumn<>("academic_year", Integer.class, AttendanceRecord::getAcademicYear),
+            new InsertColumn<>("attendance_status", String.class,
+                    record -> record.getAttendanceStatus() != null ? record.getAttendanceStatus().name() : null),
+            new InsertColumn<>("arrival_time", LocalTime.class, AttendanceRecord::getArrivalTime),
+            new InsertColumn<>("departure_time", LocalTime.class, AttendanceRecord::getDepartureTime),
+            new InsertColumn<>("justified", Boolean.class, AttendanceRecord::getJustified),
+            new InsertColumn<>("justification_reason", String.class, AttendanceRecord::getJustificationReason),
+            new InsertColumn<>("justification_document_url", String.class, AttendanceRecord::getJustificationDocumentUrl),
+            new InsertColumn<>("registered_by", String.class, AttendanceRecord::getRegisteredBy),
+            new InsertColumn<>("registered_at", LocalDateTime.class, AttendanceRecord::getRegisteredAt),
+            new InsertColumn<>("updated_at", LocalDateTime.class, AttendanceRecord::getUpdatedAt));
+
+    static final String INSERT_IF_ABSENT = "INSERT INTO attendance_records (" +
+            COLUMNS.stream().map(InsertColumn::name).collect(Collectors.joining(", ")) + ") VALUES (" +
+            COLUMNS.stream().map(column -> ":" + column.name()).collect(Collectors.joining(", ")) + ") " +
+            "ON CONFLICT (student_id, attendance_date) DO NOTHING RETURNING id";
+
+    // Misma sentencia con parámetros posicionales ($1..$n) para el lote de Statement.add()
+    static final String INSERT_ALL_IF_ABSENT = "INSERT INTO attendance_records (" +
+            COLUMNS.stream().map(InsertColumn::name).collect(Collectors.joining(", ")) + ") VALUES (" +
+            IntStream.rangeClosed(1, COLUMNS.size()).mapToObj(i -> "$" + i).collect(Collectors.joining(", ")) + ") " +
+            "ON CONFLICT (student_id, attendance_date) DO NOTHING RETURNING id, student_id, attendance_date";
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<AttendanceRecord> insertIfAbsent(AttendanceRecord record) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(INSERT_IF_ABSENT);
+        for (InsertColumn<?> column : COLUMNS) {
+            spec = column.bind(spec, record);
+        }
+        return spec.map(row -> row.get("id", UUID.class))
+                .one()
+                .map(id -> {
+                    record.setId(id);
+                    return record;
+                });
+    }
+
+    @Override
+    public Flux<AttendanceRecord> insertAllIfAbsent(List<AttendanceRecord> records) {
+        if (records.isEmpty()) {
+            return Flux.empty();
+        }
+        Map<RecordKey, AttendanceRecord> byKey = new HashMap<>();
+        records.forEach(record -> byKey.putIfAbsent(RecordKey.of(record), record));
+
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT_ALL_IF_ABSENT);
+            for (int i = 0; i < records.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                for (int index = 0; index < COLUMNS.size(); index++) {
+                    COLUMNS.get(index).bind(statement, index, records.get(i));
+                }
+            }
+            return Flux.from(statement.execute())
+                    .concatMap(result -> result.map((row, metadata) -> {
+                        AttendanceRecord inserted = byKey.get(new RecordKey(
+                                row.get("student_id", String.class), row.get("attendance_date", LocalDate.class)));
+                        inserted.setId(row.get("id", UUID.class));
+                        return inserted;
+                    }));
+        });
+    }
+
+    private record RecordKey(String studentId, LocalDate attendanceDate) {
+
+        static RecordKey of(AttendanceRecord record) {
+            return new RecordKey(record.getStudentId(), record.getAttendanceDate());
+        }
+    }
+
+    record InsertColumn<T>(String name, Class<T> type, Function<AttendanceRecord, ? extends T> getter) {
+
+        DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, AttendanceRecord record) {
+            T value = getter.apply(record);
+            return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+        }
+
+        void bind(Statement statement, int index, AttendanceRecord record) {
+            T value = getter.apply(record);
+            if (value != null) {
+                statement.bind(index, value);
+            } else {
+                statement.bindNull(index, type);
+            }
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository;
 
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
 import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceColumnsRow;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceDateStatus;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceListItem;
 import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceStatusCounts;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -12,8 +17,15 @@ import java.time.LocalDate;
 import java.util.UUID;
 
 @Repository
-public interface AttendanceRepository extends R2dbcRepository<AttendanceRecord, UUID> {
+public interface AttendanceRepository extends R2dbcRepository<AttendanceRecord, UUID>, AttendanceInsertRepository {
     
+    // Columnas que muestran los listados: todas menos los textos de justificación (justification_reason y
+    // justification_document_url), que solo se leen en el detalle por ID. Se leen como AttendanceListItem,
+    // nunca como AttendanceRecord: un registro a medias guardado después borraría la justificación
+    String LIST_COLUMNS = "id, student_id, student_name, classroom_id, classroom_name, institution_id, " +
+            "institution_name, attendance_date, academic_year, attendance_status, arrival_time, departure_time, " +
+            "justified, registered_by, registered_at, updated_at ";
+
     Flux<AttendanceRecord> findByStudentId(String studentId);
     
     Flux<AttendanceRecord> findByClassroomId(String classroomId);
@@ -28,20 +40,208 @@ public interface AttendanceRepository extends R2dbcRepository<AttendanceRecord,
     Flux<AttendanceRecord> findByClassroomIdAndAttendanceDate(
         String classroomId, LocalDate date);
     
-    Flux<AttendanceRecord> findByInstitutionIdAndAttendanceDateBetween(
+    // Exportación: solo las columnas de LIST_COLUMNS
+    @Query("SELECT " + LIST_COLUMNS + "FROM attendance_records WHERE institution_id = :institutionId " +
+           "AND attendance_date BETWEEN :startDate AND :endDate ORDER BY attendance_date, id")
+    Flux<AttendanceListItem> findByInstitutionIdAndAttendanceDateBetween(
         String institutionId, LocalDate startDate, LocalDate endDate);
     
     Flux<AttendanceRecord> findByAttendanceStatus(AttendanceStatus status);
     
-    @Query("SELECT COUNT(*) FROM attendance_records WHERE student_id = $1 AND attendance_date = $2")
-    Mono<Long> countByStudentIdAndDate(String studentId, LocalDate date);
+    // Páginas por keyset sobre (attendance_date, id): cada consulta recorre el índice desde el cursor,
+    // así que una página profunda cuesta lo mismo que la primera. El filtro attendance_date >= :afterDate
+    // es redundante con el keyset, pero permite descartar las particiones de años anteriores al cursor
+    @Query("SELECT " + LIST_COLUMNS + "FROM attendance_records WHERE attendance_date >= :afterDate " +
+           "AND (attendance_date, id) > (:afterDate, :afterId) " +
+           "ORDER BY attendance_date, id LIMIT :limit")
+    Flux<AttendanceListItem> findPageAfter(LocalDate afterDate, UUID afterId, int limit);
+    
+    @Query("SELECT " + LIST_COLUMNS + "FROM attendance_records WHERE student_id = :studentId AND attendance_date >= :afterDate " +
+           "AND (attendance_date, id) > (:afterDate, :afterId) ORDER BY attendance_date, id LIMIT :limit")
+    Flux<AttendanceListItem> findPageByStudentIdAfter(String studentId, LocalDate afterDate, UUID afterId, int limit);
+    
+    @Query("SELECT " + LIST_COLUMNS + "FROM attendance_records WHERE classroom_id = :classroomId AND attendance_date >= :afterDate " +
+           "AND (attendance_date, id) > (:afterDate, :afterId) ORDER BY attendance_date, id LIMIT :limit")
+    Flux<AttendanceListItem> findPageByClassroomIdAfter(String classroomId, LocalDate afterDate, UUID afterId, int limit);
+    
+    @Query("SELECT " + LIST_COLUMNS + "FROM attendance_records WHERE institution_id = :institutionId AND attendance_date >= :afterDate " +
+           "AND (attendance_date, id) > (:afterDate, :afterId) ORDER BY attendance_date, id LIMIT :limit")
+    Flux<AttendanceListItem> findPageByInstitutionIdAfter(String institutionId, LocalDate afterDate, UUID afterId, int limit);
+    
+    @Query("SELECT " + LIST_COLUMNS + "FROM attendance_records WHERE attendance_date = :date " +
+           "AND (attendance_date, id) > (:afterDate, :afterId) ORDER BY attendance_date, id LIMIT :limit")
+    Flux<AttendanceListItem> findPageByAttendanceDateAfter(LocalDate date, LocalDate afterDate, UUID afterId, int limit);
     
-    @Query("SELECT COUNT(*) FROM attendance_records WHERE student_id = :studentId " +
+    @Query("SELECT " + LIST_COLUMNS + "FROM attendance_records WHERE classroom_id = :classroomId AND attendance_date = :date " +
+           "AND (attendance_date, id) > (:afterDate, :afterId) ORDER BY attendance_date, id LIMIT :limit")
+    Flux<AttendanceListItem> findPageByClassroomIdAndAttendanceDateAfter(
+        String classroomId, LocalDate date, LocalDate afterDate, UUID afterId, int limit);
+    
+    @Query("SELECT " + LIST_COLUMNS + "FROM attendance_records WHERE student_id = :studentId " +
+           "AND attendance_date BETWEEN :startDate AND :endDate " +
+           "AND (attendance_date, id) > (:afterDate, :afterId) ORDER BY attendance_date, id LIMIT :limit")
+    Flux<AttendanceListItem> findPageByStudentIdAndAttendanceDateBetweenAfter(
+        String studentId, LocalDate startDate, LocalDate endDate, LocalDate afterDate, UUID afterId, int limit);
+    
+    // Registros ya existentes de un grupo de estudiantes en una fecha (una sola consulta por carga masiva)
+    @Query("SELECT * FROM attendance_records WHERE attendance_date = :date AND student_id = ANY(:studentIds)")
+    Flux<AttendanceRecord> findByAttendanceDateAndStudentIdIn(LocalDate date, String[] studentIds);
+
+    // Solo fecha y estado: lo que necesita el bitmap de asistencia de un estudiante (proyección, como LIST_COLUMNS)
+    @Query("SELECT attendance_date, attendance_status FROM attendance_records WHERE student_id = :studentId " +
            "AND attendance_date BETWEEN :startDate AND :endDate")
-    Mono<Long> countByStudentIdAndDateRange(String studentId, LocalDate startDate, LocalDate endDate);
+    Flux<AttendanceDateStatus> findStatusesByStudentIdAndDateRange(String studentId, LocalDate startDate, LocalDate endDate);
+
+    // Columnas del almacén analítico en memoria (ColumnarAttendanceStore), leídas como proyección.
+    // Solo desde :since, para descartar las particiones de años fuera de la ventana
+    @Query("SELECT id, student_id, classroom_id, attendance_date, attendance_status, arrival_time " +
+           "FROM attendance_records WHERE institution_id = :institutionId AND attendance_date >= :since")
+    Flux<AttendanceColumnsRow> findColumnsByInstitutionIdSince(String institutionId, LocalDate since);
+
+    Mono<Long> countByInstitutionIdAndAttendanceDateGreaterThanEqual(String institutionId, LocalDate since);
+
+    // Crea la partición anual de attendance_records si aún no existe (función de V6)
+    @Query("SELECT create_attendance_partition(:year)")
+    Mono<Boolean> createPartition(int year);
+    
+    // Estadísticas: todos los conteos por estado en un solo recorrido. Los estados van como literales de
+    // AttendanceStatus; AttendanceRepositoryStatsTest comprueba que cada uno cae en su contador
+    String STATUS_COUNTS = "COUNT(*) AS total_records, " +
+           "COUNT(*) FILTER (WHERE attendance_status = 'PRESENTE') AS present_count, " +
+           "COUNT(*) FILTER (WHERE attendance_status = 'AUSENTE') AS absent_count, " +
+           "COUNT(*) FILTER (WHERE attendance_status = 'TARDANZA') AS late_count, " +
+           "COUNT(*) FILTER (WHERE attendance_status = 'JUSTIFICADO') AS justified_count, " +
+           "COUNT(*) FILTER (WHERE attendance_status = 'PERMISO') AS permission_count ";
+    
+    @Query("SELECT " + STATUS_COUNTS + "FROM attendance_records WHERE student_id = :studentId " +
+           "AND attendance_date BETWEEN :startDate AND :endDate")
+    Mono<AttendanceStatusCounts> countStatusesByStudentIdAndDateRange(
+        String studentId, LocalDate startDate, LocalDate endDate);
+    
+    @Query("SELECT student_id, MAX(student_name) AS student_name, " + STATUS_COUNTS +
+           "FROM attendance_records WHERE classroom_id = :classroomId " +
+           "AND attendance_date BETWEEN :startDate AND :endDate " +
+           "GROUP BY student_id ORDER BY student_id")
+    Flux<AttendanceStatusCounts> countStatusesPerStudentByClassroomIdAndDateRange(
+        String classroomId, LocalDate startDate, LocalDate endDate);
+    
+    // Tablero de institución fuera del almacén en memoria: conteos por grupo y llegada promedio en minutos
+    // (división entera, como en InstitutionColumns). attendance_daily_rollup no tiene estudiante ni hora de
+    // llegada, así que se agrega attendance_records acotado por fecha
+    String DASHBOARD_COUNTS = STATUS_COUNTS + ", " +
+           "FLOOR(SUM(EXTRACT(HOUR FROM arrival_time) * 60 + EXTRACT(MINUTE FROM arrival_time)) " +
+           "/ NULLIF(COUNT(arrival_time), 0))::int AS average_arrival_minute " +
+           "FROM attendance_records WHERE institution_id = :institutionId " +
+           "AND attendance_date BETWEEN :startDate AND :endDate ";
+
+    @Query("SELECT classroom_id AS group_key, " + DASHBOARD_COUNTS + "GROUP BY classroom_id")
+    Flux<AttendanceStatusCounts> countDashboardPerClassroom(String institutionId, LocalDate startDate, LocalDate endDate);
+
+    @Query("SELECT student_id AS group_key, " + DASHBOARD_COUNTS + "GROUP BY student_id")
+    Flux<AttendanceStatusCounts> countDashboardPerStudent(String institutionId, LocalDate startDate, LocalDate endDate);
+
+    @Query("SELECT attendance_date::text AS group_key, " + DASHBOARD_COUNTS + "GROUP BY attendance_date")
+    Flux<AttendanceStatusCounts> countDashboardPerDay(String institutionId, LocalDate startDate, LocalDate endDate);
+    
+    // Resumen diario (attendance_daily_rollup): mismos conteos por estado, sumando record_count
+    String ROLLUP_STATUS_COUNTS = "COALESCE(SUM(record_count), 0)::bigint AS total_records, " +
+           "COALESCE(SUM(record_count) FILTER (WHERE attendance_status = 'PRESENTE'), 0)::bigint AS present_count, " +
+           "COALESCE(SUM(record_count) FILTER (WHERE attendance_status = 'AUSENTE'), 0)::bigint AS absent_count, " +
+           "COALESCE(SUM(record_count) FILTER (WHERE attendance_status = 'TARDANZA'), 0)::bigint AS late_count, " +
+           "COALESCE(SUM(record_count) FILTER (WHERE attendance_status = 'JUSTIFICADO'), 0)::bigint AS justified_count, " +
+           "COALESCE(SUM(record_count) FILTER (WHERE attendance_status = 'PERMISO'), 0)::bigint AS permission_count ";
+    
+    // Suma delta[i] a cada clave i en una sola sentencia; las filas se escriben en el orden de los arreglos.
+    // Un delta negativo sobre una clave sin fila no crea una fila negativa y ningún conteo baja de cero
+    // (solo pasa si el resumen ya estaba desfasado; la reconstrucción lo corrige)
+    @Modifying
+    @Query("INSERT INTO attendance_daily_rollup AS r " +
+           "(institution_id, classroom_id, attendance_date, attendance_status, record_count) " +
+           "SELECT v.institution_id, v.classroom_id, v.attendance_date, v.attendance_status, v.delta " +
+           "FROM unnest(:institutionIds, :classroomIds, :dates, :statuses, :deltas) WITH ORDINALITY " +
+           "AS v(institution_id, classroom_id, attendance_date, attendance_status, delta, position) " +
+           "WHERE v.delta > 0 OR EXISTS (SELECT 1 FROM attendance_daily_rollup e " +
+           "WHERE e.institution_id = v.institution_id AND e.classroom_id = v.classroom_id " +
+           "AND e.attendance_date = v.attendance_date AND e.attendance_status = v.attendance_status) " +
+           "ORDER BY v.position " +
+           "ON CONFLICT (institution_id, classroom_id, attendance_date, attendance_status) " +
+           "DO UPDATE SET record_count = GREATEST(r.record_count + EXCLUDED.record_count, 0)")
+    Mono<Long> adjustDailyRollup(String[] institutionIds, String[] classroomIds, LocalDate[] dates,
+                                 String[] statuses, Long[] deltas);
+    
+    // Bloquea el resumen mientras se reconstruye: las escrituras concurrentes esperan y suman después
+    @Modifying
+    @Query("LOCK TABLE attendance_daily_rollup IN EXCLUSIVE MODE")
+    Mono<Void> lockDailyRollup();
+    
+    @Modifying
+    @Query("DELETE FROM attendance_daily_rollup WHERE attendance_date BETWEEN :startDate AND :endDate")
+    Mono<Long> deleteDailyRollup(LocalDate startDate, LocalDate endDate);
+    
+    @Modifying
+    @Query("INSERT INTO attendance_daily_rollup " +
+           "(institution_id, classroom_id, attendance_date, attendance_status, record_count) " +
+           "SELECT institution_id, classroom_id, attendance_date, attendance_status, COUNT(*) " +
+           "FROM attendance_records WHERE attendance_date BETWEEN :startDate AND :endDate " +
+           "GROUP BY institution_id, classroom_id, attendance_date, attendance_status")
+    Mono<Long> insertDailyRollup(LocalDate startDate, LocalDate endDate);
+    
+    @Query("SELECT " + ROLLUP_STATUS_COUNTS + "FROM attendance_daily_rollup WHERE classroom_id = :classroomId " +
+           "AND attendance_date BETWEEN :startDate AND :endDate")
+    Mono<AttendanceStatusCounts> sumRollupByClassroomIdAndDateRange(
+        String classroomId, LocalDate startDate, LocalDate endDate);
+    
+    @Query("SELECT " + ROLLUP_STATUS_COUNTS + "FROM attendance_daily_rollup WHERE institution_id = :institutionId " +
+           "AND attendance_date BETWEEN :startDate AND :endDate")
+    Mono<AttendanceStatusCounts> sumRollupByInstitutionIdAndDateRange(
+        String institutionId, LocalDate startDate, LocalDate endDate);
+    
+    @Query("SELECT date_trunc(:unit, attendance_date)::date AS period_start, " + ROLLUP_STATUS_COUNTS +
+           "FROM attendance_daily_rollup WHERE classroom_id = :classroomId " +
+           "AND attendance_date BETWEEN :startDate AND :endDate " +
+           "GROUP BY GROUPING SETS ((1), ()) ORDER BY 1 NULLS FIRST")
+    Flux<AttendanceStatusCounts> sumRollupPerPeriodByClassroomIdAndDateRange(
+        String classroomId, LocalDate startDate, LocalDate endDate, String unit);
+    
+    @Query("SELECT date_trunc(:unit, attendance_date)::date AS period_start, " + ROLLUP_STATUS_COUNTS +
+           "FROM attendance_daily_rollup WHERE institution_id = :institutionId " +
+           "AND attendance_date BETWEEN :startDate AND :endDate " +
+           "GROUP BY GROUPING SETS ((1), ()) ORDER BY 1 NULLS FIRST")
+    Flux<AttendanceStatusCounts> sumRollupPerPeriodByInstitutionIdAndDateRange(
+        String institutionId, LocalDate startDate, LocalDate endDate, String unit);
+    
+    // Reconciliación de nombres guardados: IDs distintos con asistencias desde :since, paginados por keyset.
+    // El filtro por fecha descarta las particiones de años anteriores
+    @Query("SELECT DISTINCT student_id FROM attendance_records WHERE attendance_date >= :since " +
+           "AND student_id > :afterId ORDER BY student_id LIMIT :limit")
+    Flux<String> findDistinctStudentIdsSince(LocalDate since, String afterId, int limit);
+    
+    @Query("SELECT DISTINCT classroom_id FROM attendance_records WHERE attendance_date >= :since " +
+           "AND classroom_id > :afterId ORDER BY classroom_id LIMIT :limit")
+    Flux<String> findDistinctClassroomIdsSince(LocalDate since, String afterId, int limit);
+    
+    @Query("SELECT DISTINCT institution_id FROM attendance_records WHERE attendance_date >= :since " +
+           "AND institution_id > :afterId ORDER BY institution_id LIMIT :limit")
+    Flux<String> findDistinctInstitutionIdsSince(LocalDate since, String afterId, int limit);
+    
+    // Actualiza en una sola sentencia los nombres que cambiaron (ids[i] -> names[i]), solo en las filas desde
+    // :since: las particiones de años anteriores ni se leen ni se reescriben (los nombres históricos quedan
+    // como se guardaron)
+    @Modifying
+    @Query("UPDATE attendance_records a SET student_name = v.name " +
+           "FROM unnest(:ids, :names) AS v(id, name) " +
+           "WHERE a.student_id = v.id AND a.attendance_date >= :since AND a.student_name IS DISTINCT FROM v.name")
+    Mono<Long> updateStudentNamesSince(LocalDate since, String[] ids, String[] names);
+    
+    @Modifying
+    @Query("UPDATE attendance_records a SET classroom_name = v.name " +
+           "FROM unnest(:ids, :names) AS v(id, name) " +
+           "WHERE a.classroom_id = v.id AND a.attendance_date >= :since AND a.classroom_name IS DISTINCT FROM v.name")
+    Mono<Long> updateClassroomNamesSince(LocalDate since, String[] ids, String[] names);
     
-    @Query("SELECT COUNT(*) FROM attendance_records WHERE student_id = $1 " +
-           "AND attendance_status = $2 AND attendance_date BETWEEN $3 AND $4")
-    Mono<Long> countByStudentIdAndStatusAndDateRange(
-        String studentId, AttendanceStatus status, LocalDate startDate, LocalDate endDate);
+    @Modifying
+    @Query("UPDATE attendance_records a SET institution_name = v.name " +
+           "FROM unnest(:ids, :names) AS v(id, name) " +
+           "WHERE a.institution_id = v.id AND a.attendance_date >= :since AND a.institution_name IS DISTINCT FROM v.name")
+    Mono<Long> updateInstitutionNamesSince(LocalDate since, String[] ids, String[] names);
 }
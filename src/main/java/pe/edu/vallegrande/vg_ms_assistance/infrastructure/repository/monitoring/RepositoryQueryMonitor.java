@@ -0,0 +1,72 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interceptor de los repositorios: registra como consulta lenta toda invocación que supere el umbral
+ * (desde la suscripción hasta la última fila) y anota cada invocación en el {@link RequestQueryLog}
+ * de la petición, si lo hay. El tiempo por método ya lo publica Spring Boot en
+ * {@code spring.data.repository.invocations}; aquí solo se cuentan las lentas.
+ */
+@Slf4j
+public class RepositoryQueryMonitor implements MethodInterceptor {
+
+    private final String repositoryName;
+    private final long slowThresholdNanos;
+    private final MeterRegistry meterRegistry;
+
+    public RepositoryQueryMonitor(String repositoryName, Duration slowThreshold, MeterRegistry meterRegistry) {
+        this.repositoryName = repositoryName;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        String method = invocation.getMethod().getName();
+        if (result instanceof Mono<?> mono) {
+            return Mono.deferContextual(context -> {
+                long start = started(context, method);
+                return mono.doOnTerminate(() -> finished(method, start))
+                        .doOnCancel(() -> finished(method, start));
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            return Flux.deferContextual(context -> {
+                long start = started(context, method);
+                return flux.doOnTerminate(() -> finished(method, start))
+                        .doOnCancel(() -> finished(method, start));
+            });
+        }
+        return result;
+    }
+
+    private long started(ContextView context, String method) {
+        context.<RequestQueryLog>getOrEmpty(RequestQueryLog.CONTEXT_KEY).ifPresent(queries -> queries.record(method));
+        return System.nanoTime();
+    }
+
+    private void finished(String method, long start) {
+        long elapsed = System.nanoTime() - start;
+        if (elapsed >= slowThresholdNanos) {
+            Counter.builder("repository.queries.slow")
+                    .tag("repository", repositoryName)
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("[SLOW-QUERY] {}.{} took {} ms (threshold {} ms)", repositoryName, method,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Cuenta las consultas de una petición por método de repositorio. Viaja en el contexto de Reactor
+ * (lo agrega el filtro web) y al terminar la petición sirve para detectar patrones N+1.
+ */
+@Slf4j
+public class RequestQueryLog {
+
+    static final String CONTEXT_KEY = RequestQueryLog.class.getName();
+
+    private final Map<String, LongAdder> invocations = new ConcurrentHashMap<>();
+
+    public Context addTo(Context context) {
+        return context.put(CONTEXT_KEY, this);
+    }
+
+    // Para consultas que se repiten a propósito, como el recorrido página por página de un stream:
+    // no se anotan y no disparan el aviso N+1 (el aviso de consulta lenta sigue aplicando)
+    public static <T> Flux<T> untracked(Flux<T> queries) {
+        return queries.contextWrite(context -> context.delete(CONTEXT_KEY));
+    }
+
+    void record(String method) {
+        invocations.computeIfAbsent(method, key -> new LongAdder()).increment();
+    }
+
+    public long total() {
+        return invocations.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    // Métodos invocados al menos threshold veces en la petición
+    public Map<String, Long> repeatedAtLeast(int threshold) {
+        return invocations.entrySet().stream()
+                .filter(entry -> entry.getValue().sum() >= threshold)
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+    }
+
+    // Avisa si algún método se invocó tantas veces en la petición que parece un N+1
+    public void reportRepeated(int threshold, String request) {
+        Map<String, Long> repeated = repeatedAtLeast(threshold);
+        if (!repeated.isEmpty()) {
+            log.warn("[N+1] {} ran {} repository queries; repeated methods: {}", request, total(), repeated);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.routing;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Marca en el contexto de Reactor qué consultas pueden ir a la réplica de solo lectura.
+ * Todo lo que no se marque con {@link #readOnly} (escrituras y transacciones) usa la base principal.
+ * Dentro de una petición, una vez que se usó la principal, las lecturas siguientes también van a ella
+ * para que la petición vea sus propias escrituras aunque la réplica vaya con retraso.
+ */
+public final class ReadWriteRouting {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private static final String READ_ONLY_KEY = ReadWriteRouting.class.getName() + ".READ_ONLY";
+    private static final String PRIMARY_USED_KEY = ReadWriteRouting.class.getName() + ".PRIMARY_USED";
+
+    private ReadWriteRouting() {
+    }
+
+    public static <T> Mono<T> readOnly(Mono<T> query) {
+        return query.contextWrite(context -> context.put(READ_ONLY_KEY, Boolean.TRUE));
+    }
+
+    public static <T> Flux<T> readOnly(Flux<T> query) {
+        return query.contextWrite(context -> context.put(READ_ONLY_KEY, Boolean.TRUE));
+    }
+
+    // Estado de una petición: recuerda si ya se usó la base principal
+    public static Context withRequestState(Context context) {
+        return context.put(PRIMARY_USED_KEY, new AtomicBoolean());
+    }
+
+    static Target route(ContextView context) {
+        Optional<AtomicBoolean> primaryUsed = context.getOrEmpty(PRIMARY_USED_KEY);
+        boolean readOnly = context.getOrDefault(READ_ONLY_KEY, Boolean.FALSE);
+        if (!readOnly) {
+            primaryUsed.ifPresent(used -> used.set(true));
+            return Target.PRIMARY;
+        }
+        return primaryUsed.map(AtomicBoolean::get).orElse(false) ? Target.PRIMARY : Target.REPLICA;
+    }
+}
@@ -0,0 +1,27 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.routing;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * ConnectionFactory que entrega conexiones de la réplica a las consultas marcadas como de solo lectura
+ * y de la base principal al resto. Las transacciones abren su conexión sin esa marca, así que siempre
+ * escriben en la principal.
+ */
+public class ReadWriteRoutingConnectionFactory extends AbstractRoutingConnectionFactory {
+
+    public ReadWriteRoutingConnectionFactory(ConnectionFactory primary, ConnectionFactory replica) {
+        setTargetConnectionFactories(Map.of(
+                ReadWriteRouting.Target.PRIMARY, primary,
+                ReadWriteRouting.Target.REPLICA, replica));
+        setDefaultTargetConnectionFactory(primary);
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(context -> Mono.just(ReadWriteRouting.route(context)));
+    }
+}
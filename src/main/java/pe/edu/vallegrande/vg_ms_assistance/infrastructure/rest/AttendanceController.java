@@ -5,18 +5,44 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.codec.multipart.FilePartEvent;
+import org.springframework.http.codec.multipart.PartEvent;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.*;
+import pe.edu.vallegrande.vg_ms_assistance.application.config.PaginationProperties;
 import pe.edu.vallegrande.vg_ms_assistance.application.service.AttendanceService;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.analytics.DashboardGrouping;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.enrichment.EnrichmentOptions;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.pagination.CursorPage;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.pagination.CursorRequest;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.pagination.PageCursor;
+import pe.edu.vallegrande.vg_ms_assistance.application.service.stats.StatsGranularity;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.csv.AttendanceCsvReader;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.csv.AttendanceCsvWriter;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.request.AttendanceRequest;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.request.JustificationRequest;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.AttendanceImportResponse;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.AttendanceResponse;
 import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.AttendanceStatsResponse;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.GroupAttendanceStatsResponse;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.InstitutionDashboardResponse;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.StudentAttendanceStatsResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/attendance")
@@ -24,7 +50,15 @@ import java.util.UUID;
 @Tag(name = "Attendance", description = "Attendance management endpoints")
 public class AttendanceController {
     
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    public static final String IMPORT_FILE_PART = "file";
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    // Evento final de los streams SSE: sin él, EventSource reconectaría al terminar la respuesta
+    public static final String END_EVENT = "end";
+    
     private final AttendanceService attendanceService;
+    private final PaginationProperties paginationProperties;
     
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -35,56 +69,296 @@ public class AttendanceController {
     
     @GetMapping("/{id}")
     @Operation(summary = "Get attendance by ID")
-    public Mono<AttendanceResponse> getAttendanceById(@PathVariable UUID id) {
-        return attendanceService.getAttendanceById(id);
+    public Mono<AttendanceResponse> getAttendanceById(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        return attendanceService.getAttendanceById(id, EnrichmentOptions.of(enrich, fields));
     }
     
     @GetMapping
     @Operation(summary = "Get all attendance records")
-    public Flux<AttendanceResponse> getAllAttendances() {
-        return attendanceService.getAllAttendances();
+    public Mono<ResponseEntity<Flux<AttendanceResponse>>> getAllAttendances(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        EnrichmentOptions options = EnrichmentOptions.of(enrich, fields);
+        return listResponse(cursor, size,
+                page -> attendanceService.getAllAttendances(page, options),
+                () -> attendanceService.streamAllAttendances(PageCursor.START, options));
     }
     
     @GetMapping("/student/{studentId}")
     @Operation(summary = "Get attendance by student")
-    public Flux<AttendanceResponse> getAttendancesByStudent(@PathVariable String studentId) {
-        return attendanceService.getAttendancesByStudent(studentId);
+    public Mono<ResponseEntity<Flux<AttendanceResponse>>> getAttendancesByStudent(
+            @PathVariable String studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        EnrichmentOptions options = EnrichmentOptions.of(enrich, fields);
+        return listResponse(cursor, size,
+                page -> attendanceService.getAttendancesByStudent(studentId, page, options),
+                () -> attendanceService.streamAttendancesByStudent(studentId, PageCursor.START, options));
     }
     
     @GetMapping("/classroom/{classroomId}")
     @Operation(summary = "Get attendance by classroom")
-    public Flux<AttendanceResponse> getAttendancesByClassroom(@PathVariable String classroomId) {
-        return attendanceService.getAttendancesByClassroom(classroomId);
+    public Mono<ResponseEntity<Flux<AttendanceResponse>>> getAttendancesByClassroom(
+            @PathVariable String classroomId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        EnrichmentOptions options = EnrichmentOptions.of(enrich, fields);
+        return listResponse(cursor, size,
+                page -> attendanceService.getAttendancesByClassroom(classroomId, page, options),
+                () -> attendanceService.streamAttendancesByClassroom(classroomId, PageCursor.START, options));
     }
     
     @GetMapping("/institution/{institutionId}")
     @Operation(summary = "Get attendance by institution")
-    public Flux<AttendanceResponse> getAttendancesByInstitution(@PathVariable String institutionId) {
-        return attendanceService.getAttendancesByInstitution(institutionId);
+    public Mono<ResponseEntity<Flux<AttendanceResponse>>> getAttendancesByInstitution(
+            @PathVariable String institutionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        EnrichmentOptions options = EnrichmentOptions.of(enrich, fields);
+        return listResponse(cursor, size,
+                page -> attendanceService.getAttendancesByInstitution(institutionId, page, options),
+                () -> attendanceService.streamAttendancesByInstitution(institutionId, PageCursor.START, options));
     }
     
     @GetMapping("/date/{date}")
     @Operation(summary = "Get attendance by date")
-    public Flux<AttendanceResponse> getAttendancesByDate(
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        return attendanceService.getAttendancesByDate(date);
+    public Mono<ResponseEntity<Flux<AttendanceResponse>>> getAttendancesByDate(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        EnrichmentOptions options = EnrichmentOptions.of(enrich, fields);
+        return listResponse(cursor, size,
+                page -> attendanceService.getAttendancesByDate(date, page, options),
+                () -> attendanceService.streamAttendancesByDate(date, PageCursor.START, options));
     }
     
     @GetMapping("/classroom/{classroomId}/date/{date}")
     @Operation(summary = "Get attendance by classroom and date")
-    public Flux<AttendanceResponse> getAttendancesByClassroomAndDate(
+    public Mono<ResponseEntity<Flux<AttendanceResponse>>> getAttendancesByClassroomAndDate(
             @PathVariable String classroomId,
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        return attendanceService.getAttendancesByClassroomAndDate(classroomId, date);
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        EnrichmentOptions options = EnrichmentOptions.of(enrich, fields);
+        return listResponse(cursor, size,
+                page -> attendanceService.getAttendancesByClassroomAndDate(classroomId, date, page, options),
+                () -> attendanceService.streamAttendancesByClassroomAndDate(classroomId, date, PageCursor.START, options));
     }
     
     @GetMapping("/student/{studentId}/range")
     @Operation(summary = "Get attendance by student and date range")
-    public Flux<AttendanceResponse> getAttendancesByStudentAndDateRange(
+    public Mono<ResponseEntity<Flux<AttendanceResponse>>> getAttendancesByStudentAndDateRange(
             @PathVariable String studentId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        return attendanceService.getAttendancesByStudentAndDateRange(studentId, startDate, endDate);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        EnrichmentOptions options = EnrichmentOptions.of(enrich, fields);
+        Mono<ResponseEntity<Flux<AttendanceResponse>>> response = listResponse(cursor, size,
+                page -> attendanceService.getAttendancesByStudentAndDateRange(studentId, startDate, endDate, page, options),
+                () -> attendanceService.streamAttendancesByStudentAndDateRange(studentId, startDate, endDate, PageCursor.START, options));
+        if (!includeTotal) {
+            return response;
+        }
+        // X-Total-Count: registros del rango completo, no solo de esta página (una consulta más, por eso
+        // solo si se pide)
+        return Mono.zip(response, attendanceService.getAttendanceStats(studentId, startDate, endDate))
+                .map(responseAndStats -> ResponseEntity.ok()
+                        .headers(responseAndStats.getT1().getHeaders())
+                        .header(TOTAL_COUNT_HEADER, String.valueOf(responseAndStats.getT2().getTotalRecords()))
+                        .body(responseAndStats.getT1().getBody()));
+    }
+    
+    // Variantes /stream de los listados: devuelven todo el resultado como NDJSON (una línea por registro)
+    // o como eventos SSE según el Accept, escribiendo cada registro en cuanto se lee y pidiendo más filas
+    // a la base de datos solo al ritmo en que el cliente consume. "cursor" permite retomar un stream cortado:
+    // en SSE el último evento de cada página lleva como id el cursor y el navegador lo reenvía en
+    // Last-Event-ID al reconectar; en NDJSON el cliente arma el cursor con la última fila recibida,
+    // base64url sin relleno de "attendanceDate|id" (por ejemplo "2025-03-14|<uuid>")
+    
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all attendance records as NDJSON")
+    public Flux<AttendanceResponse> streamAllAttendances(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        return attendanceService.streamAllAttendances(PageCursor.decodeOrStart(cursor), EnrichmentOptions.of(enrich, fields));
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream all attendance records as Server-Sent Events")
+    public Flux<ServerSentEvent<AttendanceResponse>> streamAllAttendanceEvents(
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        return withResumeIds(attendanceService.streamAllAttendances(resumeCursor(cursor, lastEventId), EnrichmentOptions.of(enrich, fields)));
+    }
+    
+    @GetMapping(value = "/student/{studentId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream attendance by student as NDJSON")
+    public Flux<AttendanceResponse> streamAttendancesByStudent(
+            @PathVariable String studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        return attendanceService.streamAttendancesByStudent(studentId, PageCursor.decodeOrStart(cursor), EnrichmentOptions.of(enrich, fields));
+    }
+    
+    @GetMapping(value = "/student/{studentId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream attendance by student as Server-Sent Events")
+    public Flux<ServerSentEvent<AttendanceResponse>> streamAttendanceEventsByStudent(
+            @PathVariable String studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        return withResumeIds(attendanceService.streamAttendancesByStudent(studentId, resumeCursor(cursor, lastEventId), EnrichmentOptions.of(enrich, fields)));
+    }
+    
+    @GetMapping(value = "/classroom/{classroomId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream attendance by classroom as NDJSON")
+    public Flux<AttendanceResponse> streamAttendancesByClassroom(
+            @PathVariable String classroomId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        return attendanceService.streamAttendancesByClassroom(classroomId, PageCursor.decodeOrStart(cursor), EnrichmentOptions.of(enrich, fields));
+    }
+    
+    @GetMapping(value = "/classroom/{classroomId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream attendance by classroom as Server-Sent Events")
+    public Flux<ServerSentEvent<AttendanceResponse>> streamAttendanceEventsByClassroom(
+            @PathVariable String classroomId,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        return withResumeIds(attendanceService.streamAttendancesByClassroom(classroomId, resumeCursor(cursor, lastEventId), EnrichmentOptions.of(enrich, fields)));
+    }
+    
+    @GetMapping(value = "/institution/{institutionId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream attendance by institution as NDJSON")
+    public Flux<AttendanceResponse> streamAttendancesByInstitution(
+            @PathVariable String institutionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        return attendanceService.streamAttendancesByInstitution(institutionId, PageCursor.decodeOrStart(cursor), EnrichmentOptions.of(enrich, fields));
+    }
+    
+    @GetMapping(value = "/institution/{institutionId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream attendance by institution as Server-Sent Events")
+    public Flux<ServerSentEvent<AttendanceResponse>> streamAttendanceEventsByInstitution(
+            @PathVariable String institutionId,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        return withResumeIds(attendanceService.streamAttendancesByInstitution(institutionId, resumeCursor(cursor, lastEventId), EnrichmentOptions.of(enrich, fields)));
+    }
+    
+    @GetMapping(value = "/date/{date}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream attendance by date as NDJSON")
+    public Flux<AttendanceResponse> streamAttendancesByDate(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        return attendanceService.streamAttendancesByDate(date, PageCursor.decodeOrStart(cursor), EnrichmentOptions.of(enrich, fields));
+    }
+    
+    @GetMapping(value = "/date/{date}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream attendance by date as Server-Sent Events")
+    public Flux<ServerSentEvent<AttendanceResponse>> streamAttendanceEventsByDate(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        return withResumeIds(attendanceService.streamAttendancesByDate(date, resumeCursor(cursor, lastEventId), EnrichmentOptions.of(enrich, fields)));
+    }
+    
+    @GetMapping(value = "/classroom/{classroomId}/date/{date}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream attendance by classroom and date as NDJSON")
+    public Flux<AttendanceResponse> streamAttendancesByClassroomAndDate(
+            @PathVariable String classroomId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        return attendanceService.streamAttendancesByClassroomAndDate(classroomId, date, PageCursor.decodeOrStart(cursor), EnrichmentOptions.of(enrich, fields));
+    }
+    
+    @GetMapping(value = "/classroom/{classroomId}/date/{date}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream attendance by classroom and date as Server-Sent Events")
+    public Flux<ServerSentEvent<AttendanceResponse>> streamAttendanceEventsByClassroomAndDate(
+            @PathVariable String classroomId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        return withResumeIds(attendanceService.streamAttendancesByClassroomAndDate(classroomId, date, resumeCursor(cursor, lastEventId), EnrichmentOptions.of(enrich, fields)));
+    }
+    
+    @GetMapping(value = "/student/{studentId}/range/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream attendance by student and date range as NDJSON")
+    public Flux<AttendanceResponse> streamAttendancesByStudentAndDateRange(
+            @PathVariable String studentId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        return attendanceService.streamAttendancesByStudentAndDateRange(studentId, startDate, endDate, PageCursor.decodeOrStart(cursor), EnrichmentOptions.of(enrich, fields));
+    }
+    
+    @GetMapping(value = "/student/{studentId}/range/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream attendance by student and date range as Server-Sent Events")
+    public Flux<ServerSentEvent<AttendanceResponse>> streamAttendanceEventsByStudentAndDateRange(
+            @PathVariable String studentId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId,
+            @RequestParam(defaultValue = "names") String enrich,
+            @RequestParam(required = false) List<String> fields) {
+        return withResumeIds(attendanceService.streamAttendancesByStudentAndDateRange(studentId, startDate, endDate, resumeCursor(cursor, lastEventId), EnrichmentOptions.of(enrich, fields)));
+    }
+    
+    @GetMapping(value = "/institution/{institutionId}/export", produces = AttendanceCsvWriter.MEDIA_TYPE)
+    @Operation(summary = "Export attendance of an institution for a date range as CSV")
+    public ResponseEntity<Flux<DataBuffer>> exportAttendancesByInstitution(
+            @PathVariable String institutionId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "names") String enrich,
+            ServerHttpResponse response) {
+        String filename = "attendance_" + institutionId + "_" + startDate + "_" + endDate + ".csv";
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(AttendanceCsvWriter.write(
+                        attendanceService.exportAttendancesByInstitution(institutionId, startDate, endDate, EnrichmentOptions.of(enrich, null)),
+                        response.bufferFactory()));
     }
     
     @PutMapping("/{id}")
@@ -119,6 +393,45 @@ public class AttendanceController {
         return attendanceService.getAttendanceStats(studentId, startDate, endDate);
     }
     
+    @GetMapping("/classroom/{classroomId}/students/stats")
+    @Operation(summary = "Get attendance statistics for every student in a classroom")
+    public Flux<StudentAttendanceStatsResponse> getStudentStatsByClassroom(
+            @PathVariable String classroomId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return attendanceService.getStudentStatsByClassroom(classroomId, startDate, endDate);
+    }
+    
+    @GetMapping("/classroom/{classroomId}/stats")
+    @Operation(summary = "Get attendance statistics for a classroom, optionally broken down by day or week")
+    public Mono<GroupAttendanceStatsResponse> getClassroomStats(
+            @PathVariable String classroomId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "none") String groupBy) {
+        return attendanceService.getClassroomStats(classroomId, startDate, endDate, StatsGranularity.of(groupBy));
+    }
+    
+    @GetMapping("/institution/{institutionId}/stats")
+    @Operation(summary = "Get attendance statistics for an institution, optionally broken down by day or week")
+    public Mono<GroupAttendanceStatsResponse> getInstitutionStats(
+            @PathVariable String institutionId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "none") String groupBy) {
+        return attendanceService.getInstitutionStats(institutionId, startDate, endDate, StatsGranularity.of(groupBy));
+    }
+    
+    @GetMapping("/institution/{institutionId}/dashboard")
+    @Operation(summary = "Get institution dashboard grouped by classroom, student or day, with average arrival time")
+    public Mono<InstitutionDashboardResponse> getInstitutionDashboard(
+            @PathVariable String institutionId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "classroom") String groupBy) {
+        return attendanceService.getInstitutionDashboard(institutionId, startDate, endDate, DashboardGrouping.of(groupBy));
+    }
+    
     @GetMapping("/reference/students")
     @Operation(summary = "Get all students for reference")
     public Flux<pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.ExtendedReferenceDTO> getAllStudents() {
@@ -145,6 +458,21 @@ public class AttendanceController {
         return attendanceService.createBulkAttendance(request);
     }
     
+    // El multipart se lee como eventos: el contenido del archivo llega por partes y se procesa sin
+    // guardarlo en disco ni en memoria. Si la lectura se corta a mitad del archivo responde 400 con el
+    // informe parcial (lo ya importado queda guardado)
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import attendance records from a CSV file (multipart part \"file\"), with a per-row error report")
+    public Mono<ResponseEntity<AttendanceImportResponse>> importAttendances(
+            @RequestBody Flux<PartEvent> parts,
+            @RequestParam(required = false) String registeredBy) {
+        return attendanceService.importAttendances(
+                        AttendanceCsvReader.read(fileContent(parts, IMPORT_FILE_PART), registeredBy))
+                .map(report -> report.getFileError() == null
+                        ? ResponseEntity.ok(report)
+                        : ResponseEntity.badRequest().body(report));
+    }
+    
     @GetMapping("/reference/students/institution/{institutionId}")
     @Operation(summary = "Get students by institution for reference")
     public Flux<pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.ExtendedReferenceDTO> getStudentsByInstitution(
@@ -158,4 +486,65 @@ public class AttendanceController {
             @PathVariable String institutionId) {
         return attendanceService.getClassroomsByInstitution(institutionId);
     }
+    
+    // Al reconectar, el navegador envía en Last-Event-ID el último id recibido, que manda sobre el
+    // cursor de la URL original
+    private static PageCursor resumeCursor(String cursor, String lastEventId) {
+        return PageCursor.decodeOrStart(lastEventId != null && !lastEventId.isBlank() ? lastEventId : cursor);
+    }
+    
+    // El último registro de cada página lleva el cursor como id: al retomar desde él la consulta empieza
+    // justo después, así que solo se reenvían las filas de la página que estaba en curso (el cliente las
+    // reconoce por su id)
+    private Flux<ServerSentEvent<AttendanceResponse>> withResumeIds(Flux<AttendanceResponse> records) {
+        int pageSize = paginationProperties.getStreamPageSize();
+        return records
+                .index((index, record) -> {
+                    ServerSentEvent.Builder<AttendanceResponse> event = ServerSentEvent.builder(record);
+                    if ((index + 1) % pageSize == 0) {
+                        event.id(new PageCursor(record.getAttendanceDate(), record.getId()).encode());
+                    }
+                    return event.build();
+                })
+                .concatWith(Mono.fromSupplier(() -> ServerSentEvent.<AttendanceResponse>builder().event(END_EVENT).build()));
+    }
+    
+    // Contenido de la parte de archivo con ese nombre; el resto de partes se descarta
+    private static Flux<DataBuffer> fileContent(Flux<PartEvent> parts, String name) {
+        return Flux.defer(() -> {
+            boolean[] found = {false};
+            return parts.windowUntil(PartEvent::isLast)
+                    .concatMap(part -> part.switchOnFirst((first, events) -> {
+                        if (first.get() instanceof FilePartEvent event && name.equals(event.name())) {
+                            found[0] = true;
+                            return events.map(PartEvent::content);
+                        }
+                        return events.doOnNext(event -> DataBufferUtils.release(event.content()))
+                                .thenMany(Flux.<DataBuffer>empty());
+                    }))
+                    .concatWith(Flux.defer(() -> found[0] ? Flux.empty()
+                            : Flux.error(new IllegalArgumentException("Falta el archivo CSV en la parte '" + name + "'"))));
+        });
+    }
+    
+    // Siempre devuelve una página en el cuerpo (default-size si no se envía size) y el token de la siguiente
+    // en la cabecera X-Next-Cursor; el resultado completo se lee con las variantes /stream. Solo con
+    // attendance.pagination.unpaged-lists=true, sin size ni cursor, devuelve todo como antes de paginar
+    private <T> Mono<ResponseEntity<Flux<T>>> listResponse(String cursor, Integer size,
+                                                          Function<CursorRequest, Mono<CursorPage<T>>> paged,
+                                                          Supplier<Flux<T>> unpaged) {
+        if (cursor == null && size == null && paginationProperties.isUnpagedLists()) {
+            return Mono.just(ResponseEntity.ok().body(unpaged.get()));
+        }
+        return paged.apply(CursorRequest.of(cursor, size))
+                .map(page -> pageResponse(page).body(Flux.fromIterable(page.items())));
+    }
+
+    private static ResponseEntity.BodyBuilder pageResponse(CursorPage<?> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response;
+    }
 }
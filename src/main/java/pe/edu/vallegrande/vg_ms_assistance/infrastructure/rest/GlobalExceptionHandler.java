@@ -56,6 +56,18 @@ public class GlobalExceptionHandler {
             .body(createErrorResponse("Resource not found", HttpStatus.NOT_FOUND)));
     }
     
+    // Errores propios de WebFlux (406 por un Accept no soportado en los endpoints /stream, 405, 415...)
+    // conservan su código en lugar de convertirse en 500
+    @ExceptionHandler(org.springframework.web.server.ResponseStatusException.class)
+    public Mono<ResponseEntity<Map<String, Object>>> handleResponseStatusException(
+            org.springframework.web.server.ResponseStatusException ex) {
+        HttpStatus status = HttpStatus.valueOf(ex.getStatusCode().value());
+        log.warn("Request rejected: {}", ex.getMessage());
+        return Mono.just(ResponseEntity
+            .status(status)
+            .body(createErrorResponse(ex.getReason() != null ? ex.getReason() : status.getReasonPhrase(), status)));
+    }
+
     @ExceptionHandler(Exception.class)
     public Mono<ResponseEntity<Map<String, Object>>> handleGenericException(Exception ex) {
         log.error("Unexpected error: ", ex);
@@ -0,0 +1,18 @@
+-- Esquema base de attendance_records (ya existente en las bases desplegadas antes de usar Flyway)
+CREATE TABLE IF NOT EXISTS attendance_records (
+    id                         UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    student_id                 VARCHAR(255) NOT NULL,
+    classroom_id               VARCHAR(255) NOT NULL,
+    institution_id             VARCHAR(255) NOT NULL,
+    attendance_date            DATE         NOT NULL,
+    academic_year              INTEGER      NOT NULL,
+    attendance_status          VARCHAR(20)  NOT NULL,
+    arrival_time               TIME,
+    departure_time             TIME,
+    justified                  BOOLEAN      DEFAULT FALSE,
+    justification_reason       TEXT,
+    justification_document_url TEXT,
+    registered_by              VARCHAR(255) NOT NULL,
+    registered_at              TIMESTAMP,
+    updated_at                 TIMESTAMP
+);
@@ -0,0 +1,4 @@
+-- Copia de los nombres al momento del registro; las lecturas ya no dependen de los microservicios
+ALTER TABLE attendance_records ADD COLUMN IF NOT EXISTS student_name VARCHAR(255);
+ALTER TABLE attendance_records ADD COLUMN IF NOT EXISTS classroom_name VARCHAR(255);
+ALTER TABLE attendance_records ADD COLUMN IF NOT EXISTS institution_name VARCHAR(255);
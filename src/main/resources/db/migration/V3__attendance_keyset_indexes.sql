@@ -0,0 +1,12 @@
+-- Índices para la paginación por keyset: cada filtro de listado seguido de (attendance_date, id)
+CREATE INDEX IF NOT EXISTS idx_attendance_records_date_id
+    ON attendance_records (attendance_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_attendance_records_student_date_id
+    ON attendance_records (student_id, attendance_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_attendance_records_classroom_date_id
+    ON attendance_records (classroom_id, attendance_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_attendance_records_institution_date_id
+    ON attendance_records (institution_id, attendance_date, id);
@@ -0,0 +1,22 @@
+-- Conteos diarios por institución, aula, fecha y estado; se mantienen en la misma transacción que cada escritura
+CREATE TABLE IF NOT EXISTS attendance_daily_rollup (
+    institution_id    VARCHAR(255) NOT NULL,
+    classroom_id      VARCHAR(255) NOT NULL,
+    attendance_date   DATE         NOT NULL,
+    attendance_status VARCHAR(20)  NOT NULL,
+    record_count      BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (institution_id, classroom_id, attendance_date, attendance_status)
+);
+
+CREATE INDEX IF NOT EXISTS idx_attendance_daily_rollup_classroom_date
+    ON attendance_daily_rollup (classroom_id, attendance_date);
+
+CREATE INDEX IF NOT EXISTS idx_attendance_daily_rollup_institution_date
+    ON attendance_daily_rollup (institution_id, attendance_date);
+
+-- Carga inicial a partir de los registros existentes
+INSERT INTO attendance_daily_rollup (institution_id, classroom_id, attendance_date, attendance_status, record_count)
+SELECT institution_id, classroom_id, attendance_date, attendance_status, COUNT(*)
+FROM attendance_records
+GROUP BY institution_id, classroom_id, attendance_date, attendance_status
+ON CONFLICT (institution_id, classroom_id, attendance_date, attendance_status) DO NOTHING;
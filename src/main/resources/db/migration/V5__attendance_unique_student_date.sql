@@ -0,0 +1,11 @@
+-- Un solo registro de asistencia por estudiante y fecha.
+-- Si la tabla ya tiene duplicados la migración se detiene para que se revisen a mano.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM attendance_records GROUP BY student_id, attendance_date HAVING COUNT(*) > 1) THEN
+        RAISE EXCEPTION 'attendance_records tiene registros duplicados por (student_id, attendance_date); depúrelos antes de migrar';
+    END IF;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_attendance_records_student_date
+    ON attendance_records (student_id, attendance_date);
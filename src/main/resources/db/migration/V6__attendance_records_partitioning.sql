@@ -0,0 +1,91 @@
+-- attendance_records pasa a estar particionada por rango de attendance_date, una partición por año.
+-- Las consultas que filtran por fecha solo recorren las particiones del rango y los años antiguos
+-- pueden separarse con ALTER TABLE attendance_records DETACH PARTITION attendance_records_yAAAA.
+
+ALTER TABLE attendance_records RENAME TO attendance_records_unpartitioned;
+
+CREATE TABLE attendance_records (
+    id                         UUID         NOT NULL DEFAULT gen_random_uuid(),
+    student_id                 VARCHAR(255) NOT NULL,
+    student_name               VARCHAR(255),
+    classroom_id               VARCHAR(255) NOT NULL,
+    classroom_name             VARCHAR(255),
+    institution_id             VARCHAR(255) NOT NULL,
+    institution_name           VARCHAR(255),
+    attendance_date            DATE         NOT NULL,
+    academic_year              INTEGER      NOT NULL,
+    attendance_status          VARCHAR(20)  NOT NULL,
+    arrival_time               TIME,
+    departure_time             TIME,
+    justified                  BOOLEAN      DEFAULT FALSE,
+    justification_reason       TEXT,
+    justification_document_url TEXT,
+    registered_by              VARCHAR(255) NOT NULL,
+    registered_at              TIMESTAMP,
+    updated_at                 TIMESTAMP,
+    -- La clave primaria de una tabla particionada debe incluir la columna de partición
+    PRIMARY KEY (id, attendance_date)
+) PARTITION BY RANGE (attendance_date);
+
+-- Recibe las fechas que aún no tienen partición de su año
+CREATE TABLE attendance_records_default PARTITION OF attendance_records DEFAULT;
+
+-- Crea la partición del año indicado si no existe. Las filas de ese año que hubieran caído en la
+-- partición por defecto se trasladan antes de adjuntarla. Devuelve true si la creó.
+CREATE OR REPLACE FUNCTION create_attendance_partition(partition_year INTEGER) RETURNS BOOLEAN AS $$
+DECLARE
+    partition_name TEXT := format('attendance_records_y%s', partition_year);
+    range_start    DATE := make_date(partition_year, 1, 1);
+    range_end      DATE := make_date(partition_year + 1, 1, 1);
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE attendance_records INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM attendance_records_default '
+                   'WHERE attendance_date >= %L AND attendance_date < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved', range_start, range_end, partition_name);
+    EXECUTE format('ALTER TABLE attendance_records ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, range_start, range_end);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Particiones para los años con datos, el actual y el siguiente
+SELECT create_attendance_partition(partition_year)
+FROM (
+    SELECT DISTINCT EXTRACT(YEAR FROM attendance_date)::INTEGER AS partition_year FROM attendance_records_unpartitioned
+    UNION
+    SELECT EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER
+    UNION
+    SELECT EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER + 1
+) years;
+
+INSERT INTO attendance_records (
+    id, student_id, student_name, classroom_id, classroom_name, institution_id, institution_name,
+    attendance_date, academic_year, attendance_status, arrival_time, departure_time, justified,
+    justification_reason, justification_document_url, registered_by, registered_at, updated_at)
+SELECT
+    id, student_id, student_name, classroom_id, classroom_name, institution_id, institution_name,
+    attendance_date, academic_year, attendance_status, arrival_time, departure_time, justified,
+    justification_reason, justification_document_url, registered_by, registered_at, updated_at
+FROM attendance_records_unpartitioned;
+
+DROP TABLE attendance_records_unpartitioned;
+
+-- Índices de V3 y V5, ahora definidos sobre la tabla particionada (se crean en cada partición)
+CREATE UNIQUE INDEX uq_attendance_records_student_date
+    ON attendance_records (student_id, attendance_date);
+
+CREATE INDEX idx_attendance_records_date_id
+    ON attendance_records (attendance_date, id);
+
+CREATE INDEX idx_attendance_records_student_date_id
+    ON attendance_records (student_id, attendance_date, id);
+
+CREATE INDEX idx_attendance_records_classroom_date_id
+    ON attendance_records (classroom_id, attendance_date, id);
+
+CREATE INDEX idx_attendance_records_institution_date_id
+    ON attendance_records (institution_id, attendance_date, id);
@@ -0,0 +1,121 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.AttendanceRepository;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.EmbeddedPostgresDatabases;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.routing.ReadWriteRouting;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.EmbeddedPostgresDatabases.PRIMARY;
+import static pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.EmbeddedPostgresDatabases.REPLICA;
+
+/**
+ * Enrutamiento contra dos bases reales: la "réplica" es una base independiente sin replicación,
+ * así que cada consulta delata a qué servidor fue por su puerto y por las filas que ve.
+ */
+@DataR2dbcTest(properties = {"spring.flyway.enabled=false", "attendance.replica.enabled=true"})
+@Import(ReadReplicaConfig.class)
+class ReadReplicaConfigTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 15);
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) {
+        EmbeddedPostgresDatabases.register(registry, PRIMARY);
+        registry.add("attendance.replica.url", () -> EmbeddedPostgresDatabases.r2dbcUrl(REPLICA));
+    }
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private ReactiveTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        databaseClient.sql("DELETE FROM attendance_records WHERE attendance_date = :day").bind("day", DAY).then().block();
+    }
+
+    @Test
+    void readOnlyQueriesUseTheReplicaAndTheRestThePrimary() {
+        StepVerifier.create(ReadWriteRouting.readOnly(serverPort()))
+                .expectNext(port(REPLICA))
+                .verifyComplete();
+        StepVerifier.create(serverPort())
+                .expectNext(port(PRIMARY))
+                .verifyComplete();
+    }
+
+    @Test
+    void transactionsUseThePrimaryEvenForReadOnlyQueries() {
+        TransactionalOperator transactional = TransactionalOperator.create(transactionManager);
+
+        StepVerifier.create(ReadWriteRouting.readOnly(serverPort()).as(transactional::transactional))
+                .expectNext(port(PRIMARY))
+                .verifyComplete();
+    }
+
+    @Test
+    void aRequestReadsItsOwnWritesFromThePrimary() {
+        AttendanceRecord saved = attendanceRepository.save(record("S1")).block();
+
+        // Sin estado de petición la lectura va a la réplica, que no tiene la fila
+        StepVerifier.create(ReadWriteRouting.readOnly(attendanceRepository.findById(saved.getId())))
+                .verifyComplete();
+
+        Mono<AttendanceRecord> request = ReadWriteRouting.readOnly(serverPort())
+                .doOnNext(port -> assertThat(port).isEqualTo(port(REPLICA)))
+                .then(attendanceRepository.save(record("S2")))
+                .then(ReadWriteRouting.readOnly(attendanceRepository.findById(saved.getId())))
+                .contextWrite(ReadWriteRouting::withRequestState);
+
+        StepVerifier.create(request)
+                .expectNextMatches(found -> found.getId().equals(saved.getId()))
+                .verifyComplete();
+    }
+
+    private Mono<Integer> serverPort() {
+        return databaseClient.sql("SELECT inet_server_port() AS port")
+                .map(row -> row.get("port", Integer.class))
+                .one();
+    }
+
+    private static int port(String database) {
+        return EmbeddedPostgresDatabases.get(database).getPort();
+    }
+
+    private static AttendanceRecord record(String studentId) {
+        LocalDateTime now = LocalDateTime.now();
+        return AttendanceRecord.builder()
+                .studentId(studentId)
+                .classroomId("C1")
+                .institutionId("I1")
+                .attendanceDate(DAY)
+                .academicYear(2024)
+                .attendanceStatus(AttendanceStatus.PRESENTE)
+                .justified(false)
+                .registeredBy("test")
+                .registeredAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.analytics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pe.edu.vallegrande.vg_ms_assistance.application.config.AttendanceAnalyticsProperties;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceColumnsRow;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.AttendanceRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ColumnarAttendanceStoreTest {
+
+    // Ventana de dos años académicos: desde el 1 de enero del año anterior
+    private static final LocalDate WINDOW_START = LocalDate.now().withDayOfYear(1).minusYears(1);
+
+    @Mock
+    private AttendanceRepository attendanceRepository;
+
+    private ColumnarAttendanceStore store;
+
+    @BeforeEach
+    void setUp() {
+        AttendanceAnalyticsProperties properties = new AttendanceAnalyticsProperties();
+        properties.setMaxRows(3);
+        properties.setAcademicYears(2);
+        store = new ColumnarAttendanceStore(attendanceRepository, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void coversOnlyRangesStartingInsideTheWindow() {
+        assertThat(store.covers(WINDOW_START)).isTrue();
+        assertThat(store.covers(WINDOW_START.minusDays(1))).isFalse();
+    }
+
+    @Test
+    void loadsFromTheWindowStartAndIgnoresSavedRowsBeforeIt() {
+        AttendanceColumnsRow loaded = row("S1", WINDOW_START.plusDays(1));
+        when(attendanceRepository.countByInstitutionIdAndAttendanceDateGreaterThanEqual("I1", WINDOW_START))
+                .thenReturn(Mono.just(1L));
+        when(attendanceRepository.findColumnsByInstitutionIdSince("I1", WINDOW_START)).thenReturn(Flux.just(loaded));
+        LocalDate to = LocalDate.now().plusYears(1);
+
+        StepVerifier.create(store.aggregate("I1", WINDOW_START, to, DashboardGrouping.STUDENT))
+                .assertNext(groups -> assertThat(groups).extracting(GroupCounts::key).containsExactly("S1"))
+                .verifyComplete();
+
+        store.recordsSaved(List.of(saved("S0", WINDOW_START.minusDays(1)), saved("S2", WINDOW_START.plusDays(2))));
+
+        StepVerifier.create(store.aggregate("I1", WINDOW_START, to, DashboardGrouping.STUDENT))
+                .assertNext(groups -> assertThat(groups).extracting(GroupCounts::key).containsExactly("S1", "S2"))
+                .verifyComplete();
+        verify(attendanceRepository, times(1)).findColumnsByInstitutionIdSince("I1", WINDOW_START);
+    }
+
+    @Test
+    void institutionsOverTheRowLimitAreNotLoaded() {
+        when(attendanceRepository.countByInstitutionIdAndAttendanceDateGreaterThanEqual("I1", WINDOW_START))
+                .thenReturn(Mono.just(4L));
+
+        StepVerifier.create(store.aggregate("I1", WINDOW_START, LocalDate.now(), DashboardGrouping.CLASSROOM))
+                .verifyComplete();
+        verify(attendanceRepository, never()).findColumnsByInstitutionIdSince(any(), any());
+    }
+
+    private static AttendanceColumnsRow row(String studentId, LocalDate date) {
+        return AttendanceColumnsRow.of(saved(studentId, date));
+    }
+
+    private static AttendanceRecord saved(String studentId, LocalDate date) {
+        return AttendanceRecord.builder()
+                .id(UUID.randomUUID())
+                .studentId(studentId)
+                .classroomId("C1")
+                .institutionId("I1")
+                .attendanceDate(date)
+                .attendanceStatus(AttendanceStatus.PRESENTE)
+                .build();
+    }
+}
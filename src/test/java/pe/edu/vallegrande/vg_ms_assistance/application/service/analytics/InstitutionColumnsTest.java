@@ -0,0 +1,67 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.analytics;
+
+import org.junit.jupiter.api.Test;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceColumnsRow;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstitutionColumnsTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 3, 1);
+
+    @Test
+    void aggregatesAcrossChunksAndGrowsPastTheInitialCapacity() {
+        InstitutionColumns columns = new InstitutionColumns(4);
+        for (int i = 0; i < 1000; i++) {
+            columns.upsert(record(UUID.randomUUID(), "S" + (i % 10), "C" + (i % 2), START.plusDays(i % 20),
+                    i % 2 == 0 ? AttendanceStatus.PRESENTE : AttendanceStatus.AUSENTE, LocalTime.of(7, i % 2 == 0 ? 10 : 20)));
+        }
+
+        // Bloques de 64 filas para forzar varios acumuladores en paralelo
+        List<GroupCounts> groups = columns.aggregate(START, START.plusDays(9), DashboardGrouping.CLASSROOM, 64);
+
+        assertThat(columns.size()).isEqualTo(1000);
+        assertThat(groups).extracting(GroupCounts::key).containsExactly("C0", "C1");
+        assertThat(groups.get(0).counts().getTotalRecords()).isEqualTo(250);
+        assertThat(groups.get(0).counts().getPresentCount()).isEqualTo(250);
+        assertThat(groups.get(0).averageArrivalMinute()).isEqualTo(7 * 60 + 10);
+        assertThat(groups.get(1).counts().getAbsentCount()).isEqualTo(250);
+    }
+
+    @Test
+    void updatesReplaceTheRowAndRemovedRowsAreSkipped() {
+        InstitutionColumns columns = new InstitutionColumns(16);
+        UUID updated = UUID.randomUUID();
+        UUID removed = UUID.randomUUID();
+        columns.upsert(record(updated, "S1", "C1", START, AttendanceStatus.PRESENTE, LocalTime.of(7, 0)));
+        columns.upsert(record(removed, "S2", "C1", START, AttendanceStatus.AUSENTE, null));
+        columns.upsert(record(updated, "S1", "C1", START.plusDays(1), AttendanceStatus.TARDANZA, null));
+        columns.remove(removed);
+
+        List<GroupCounts> groups = columns.aggregate(START.minusDays(5), START.plusDays(5), DashboardGrouping.DAY, 1024);
+
+        assertThat(columns.size()).isEqualTo(2);
+        assertThat(groups).hasSize(1);
+        assertThat(groups.get(0).key()).isEqualTo(START.plusDays(1).toString());
+        assertThat(groups.get(0).counts().getLateCount()).isEqualTo(1);
+        assertThat(groups.get(0).averageArrivalMinute()).isNull();
+    }
+
+    private static AttendanceColumnsRow record(UUID id, String studentId, String classroomId, LocalDate date,
+                                           AttendanceStatus status, LocalTime arrival) {
+        return AttendanceColumnsRow.builder()
+                .id(id)
+                .studentId(studentId)
+                .classroomId(classroomId)
+                .attendanceDate(date)
+                .attendanceStatus(status)
+                .arrivalTime(arrival)
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.bitmap;
+
+import org.junit.jupiter.api.Test;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StudentAttendanceBitmapTest {
+
+    private static final int PRESENT = AttendanceStatus.PRESENTE.ordinal();
+    private static final int ABSENT = AttendanceStatus.AUSENTE.ordinal();
+    private static final int LATE = AttendanceStatus.TARDANZA.ordinal();
+
+    @Test
+    void countsStatusesInsideTheRangeAcrossWordBoundaries() {
+        StudentAttendanceBitmap bitmap = new StudentAttendanceBitmap(2024);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int day = 0; day < 366; day++) {
+            bitmap.set(start.plusDays(day), day % 2 == 0 ? AttendanceStatus.PRESENTE : AttendanceStatus.AUSENTE);
+        }
+
+        long[] counts = new long[AttendanceStatus.values().length];
+        // Días 60..130 (cruzan el límite entre el primer y el segundo long)
+        bitmap.addCounts(start.plusDays(60), start.plusDays(130), counts);
+
+        assertThat(counts[PRESENT]).isEqualTo(36);
+        assertThat(counts[ABSENT]).isEqualTo(35);
+    }
+
+    @Test
+    void keepsOneStatusPerDayAndClipsRangesToTheYear() {
+        StudentAttendanceBitmap bitmap = new StudentAttendanceBitmap(2025);
+        LocalDate day = LocalDate.of(2025, 12, 31);
+        bitmap.set(day, AttendanceStatus.PRESENTE);
+        bitmap.set(day, AttendanceStatus.TARDANZA);
+        bitmap.set(LocalDate.of(2025, 1, 1), AttendanceStatus.AUSENTE);
+        bitmap.clear(LocalDate.of(2025, 1, 1));
+
+        long[] counts = new long[AttendanceStatus.values().length];
+        bitmap.addCounts(LocalDate.of(2024, 6, 1), LocalDate.of(2026, 6, 1), counts);
+
+        assertThat(counts[PRESENT]).isZero();
+        assertThat(counts[ABSENT]).isZero();
+        assertThat(counts[LATE]).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsDatesFromAnotherYear() {
+        StudentAttendanceBitmap bitmap = new StudentAttendanceBitmap(2025);
+
+        assertThatThrownBy(() -> bitmap.set(LocalDate.of(2024, 3, 1), AttendanceStatus.PRESENTE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,200 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.enrichment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.client.InstitutionClient;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.client.StudentClient;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.ClassroomDTO;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.InstitutionDTO;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.StudentDTO;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.AttendanceResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AttendanceEnricherTest {
+
+    @Mock
+    private StudentClient studentClient;
+
+    @Mock
+    private InstitutionClient institutionClient;
+
+    private AttendanceEnricher enricher;
+
+    @BeforeEach
+    void setUp() {
+        enricher = new AttendanceEnricher(studentClient, institutionClient, 100, 4);
+    }
+
+    @Test
+    void resolvesEachDistinctIdOnce() {
+        when(studentClient.getStudentById(anyString()))
+                .thenAnswer(inv -> Mono.just(StudentDTO.builder().id(inv.getArgument(0)).fullName("Alumno").build()));
+        when(institutionClient.getClassroomById("C1"))
+                .thenReturn(Mono.just(ClassroomDTO.builder().id("C1").classroomName("3A").build()));
+        when(institutionClient.getInstitutionById("I1"))
+                .thenReturn(Mono.just(InstitutionDTO.builder().id("I1").name("Capilla de Asia").build()));
+
+        Flux<AttendanceRecord> records = Flux.fromStream(IntStream.range(0, 90)
+                .mapToObj(i -> AttendanceRecord.builder()
+                        .studentId("S" + (i % 30))
+                        .classroomId("C1")
+                        .institutionId("I1")
+                        .build()));
+
+        StepVerifier.create(enricher.enrich(records, this::toResponse, EnrichmentOptions.DEFAULT))
+                .expectNextCount(90)
+                .verifyComplete();
+
+        verify(studentClient, times(30)).getStudentById(anyString());
+        verify(institutionClient, times(1)).getClassroomById("C1");
+        verify(institutionClient, times(1)).getInstitutionById("I1");
+    }
+
+    @Test
+    void fallsBackToPlaceholdersWhenLookupIsEmpty() {
+        when(studentClient.getStudentById("S1")).thenReturn(Mono.empty());
+        when(institutionClient.getClassroomById("C1")).thenReturn(Mono.empty());
+        when(institutionClient.getInstitutionById("I1")).thenReturn(Mono.empty());
+
+        AttendanceRecord record = AttendanceRecord.builder()
+                .studentId("S1")
+                .classroomId("C1")
+                .institutionId("I1")
+                .build();
+
+        StepVerifier.create(enricher.enrich(record, this::toResponse, EnrichmentOptions.DEFAULT))
+                .expectNextMatches(response -> AttendanceEnricher.STUDENT_PLACEHOLDER.equals(response.getStudentName())
+                        && AttendanceEnricher.CLASSROOM_PLACEHOLDER.equals(response.getClassroomName())
+                        && AttendanceEnricher.INSTITUTION_PLACEHOLDER.equals(response.getInstitutionName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void skipsLookupsWhenEnrichmentIsDisabled() {
+        AttendanceRecord record = AttendanceRecord.builder()
+                .studentId("S1")
+                .studentName("Guardado")
+                .classroomId("C1")
+                .institutionId("I1")
+                .build();
+
+        StepVerifier.create(enricher.enrich(record, this::toResponse, EnrichmentOptions.of("none", null)))
+                .expectNextMatches(response -> response.getStudentName() == null
+                        && response.getClassroomName() == null
+                        && response.getInstitutionName() == null)
+                .verifyComplete();
+
+        verifyNoInteractions(studentClient, institutionClient);
+    }
+
+    @Test
+    void resolvesOnlyRequestedFields() {
+        when(studentClient.getStudentById("S1"))
+                .thenReturn(Mono.just(StudentDTO.builder().id("S1").fullName("Alumno").build()));
+
+        AttendanceRecord record = AttendanceRecord.builder()
+                .studentId("S1")
+                .classroomId("C1")
+                .institutionId("I1")
+                .build();
+
+        StepVerifier.create(enricher.enrich(record, this::toResponse, EnrichmentOptions.of("names", List.of("studentName"))))
+                .expectNextMatches(response -> "Alumno".equals(response.getStudentName())
+                        && response.getClassroomName() == null
+                        && response.getInstitutionName() == null)
+                .verifyComplete();
+
+        verifyNoInteractions(institutionClient);
+    }
+
+    @Test
+    void captureNamesFillsOnlyMissingNamesAndResolvesEachIdOnce() {
+        when(studentClient.getStudentById("S1"))
+                .thenReturn(Mono.just(StudentDTO.builder().id("S1").fullName("Alumno").build()));
+        when(institutionClient.getClassroomById("C1"))
+                .thenReturn(Mono.just(ClassroomDTO.builder().id("C1").classroomName("3A").build()));
+        when(institutionClient.getInstitutionById("I1"))
+                .thenReturn(Mono.just(InstitutionDTO.builder().id("I1").name("Capilla de Asia").build()));
+
+        List<AttendanceRecord> records = List.of(
+                AttendanceRecord.builder().studentId("S1").classroomId("C1").institutionId("I1").build(),
+                AttendanceRecord.builder().studentId("S1").classroomId("C1").institutionId("I1").build(),
+                AttendanceRecord.builder().studentId("S2").studentName("Guardado")
+                        .classroomId("C1").institutionId("I1").build());
+
+        StepVerifier.create(enricher.captureNames(records))
+                .expectNext(records)
+                .verifyComplete();
+
+        assertEquals(List.of("Alumno", "Alumno", "Guardado"),
+                records.stream().map(AttendanceRecord::getStudentName).toList());
+        assertEquals(List.of("3A", "3A", "3A"),
+                records.stream().map(AttendanceRecord::getClassroomName).toList());
+        assertEquals(List.of("Capilla de Asia", "Capilla de Asia", "Capilla de Asia"),
+                records.stream().map(AttendanceRecord::getInstitutionName).toList());
+        verify(studentClient, times(1)).getStudentById("S1");
+        verify(studentClient, never()).getStudentById("S2");
+        verify(institutionClient, times(1)).getClassroomById("C1");
+        verify(institutionClient, times(1)).getInstitutionById("I1");
+    }
+
+    @Test
+    void captureNamesLeavesNullWhenServiceDoesNotAnswer() {
+        // Los clientes convierten los errores en vacío: sin placeholder, para que la reconciliación lo complete
+        when(studentClient.getStudentById("S1")).thenReturn(Mono.empty());
+        when(institutionClient.getClassroomById("C1")).thenReturn(Mono.empty());
+        when(institutionClient.getInstitutionById("I1"))
+                .thenReturn(Mono.just(InstitutionDTO.builder().id("I1").name("Capilla de Asia").build()));
+
+        AttendanceRecord record = AttendanceRecord.builder()
+                .studentId("S1")
+                .classroomId("C1")
+                .institutionId("I1")
+                .build();
+
+        StepVerifier.create(enricher.captureNames(record))
+                .expectNext(record)
+                .verifyComplete();
+
+        assertNull(record.getStudentName());
+        assertNull(record.getClassroomName());
+        assertEquals("Capilla de Asia", record.getInstitutionName());
+    }
+
+    @Test
+    void rejectsUnknownEnrichmentValues() {
+        assertThrows(IllegalArgumentException.class, () -> EnrichmentOptions.of("all", null));
+        assertThrows(IllegalArgumentException.class, () -> EnrichmentOptions.of("names", List.of("teacherName")));
+    }
+
+    private AttendanceResponse toResponse(AttendanceRecord record) {
+        return AttendanceResponse.builder()
+                .studentId(record.getStudentId())
+                .classroomId(record.getClassroomId())
+                .institutionId(record.getInstitutionId())
+                .studentName(record.getStudentName())
+                .classroomName(record.getClassroomName())
+                .institutionName(record.getInstitutionName())
+                .build();
+    }
+}
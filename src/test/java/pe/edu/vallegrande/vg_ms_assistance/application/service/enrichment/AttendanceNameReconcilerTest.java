@@ -0,0 +1,96 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.enrichment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.AttendanceRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AttendanceNameReconcilerTest {
+
+    @Mock
+    private AttendanceRepository attendanceRepository;
+
+    @Mock
+    private AttendanceEnricher attendanceEnricher;
+
+    private AttendanceNameReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        reconciler = new AttendanceNameReconciler(attendanceRepository, attendanceEnricher, 2, 4, Duration.ofDays(30));
+    }
+
+    @Test
+    void walksRecentIdsByPageAndUpdatesOnlyResolvedNames() {
+        LocalDate since = LocalDate.now().minusDays(30);
+        when(attendanceRepository.findDistinctStudentIdsSince(since, "", 2)).thenReturn(Flux.just("S1", "S2"));
+        when(attendanceRepository.findDistinctStudentIdsSince(since, "S2", 2)).thenReturn(Flux.just("S3"));
+        when(attendanceRepository.findDistinctClassroomIdsSince(since, "", 2)).thenReturn(Flux.empty());
+        when(attendanceRepository.findDistinctInstitutionIdsSince(since, "", 2)).thenReturn(Flux.empty());
+        when(attendanceEnricher.currentStudentName("S1")).thenReturn(Mono.just("Ana"));
+        when(attendanceEnricher.currentStudentName("S2")).thenReturn(Mono.empty());
+        when(attendanceEnricher.currentStudentName("S3")).thenReturn(Mono.just("Luis"));
+        when(attendanceRepository.updateStudentNamesSince(eq(since), any(), any())).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(reconciler.reconcile()).verifyComplete();
+
+        // Un UPDATE por página con los nombres resueltos; S2 (sin respuesta) no se toca
+        ArgumentCaptor<String[]> ids = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<String[]> names = ArgumentCaptor.forClass(String[].class);
+        verify(attendanceRepository, times(2)).updateStudentNamesSince(eq(since), ids.capture(), names.capture());
+        assertArrayEquals(new String[]{"S1"}, ids.getAllValues().get(0));
+        assertArrayEquals(new String[]{"Ana"}, names.getAllValues().get(0));
+        assertArrayEquals(new String[]{"S3"}, ids.getAllValues().get(1));
+        assertArrayEquals(new String[]{"Luis"}, names.getAllValues().get(1));
+        verify(attendanceRepository, never()).findDistinctStudentIdsSince(eq(since), eq("S3"), anyInt());
+        verify(attendanceRepository, never()).updateClassroomNamesSince(any(), any(), any());
+        verify(attendanceRepository, never()).updateInstitutionNamesSince(any(), any(), any());
+    }
+
+    @Test
+    void failureIsLoggedAndDoesNotPropagate() {
+        when(attendanceRepository.findDistinctStudentIdsSince(any(), anyString(), anyInt()))
+                .thenReturn(Flux.error(new IllegalStateException("db down")));
+        when(attendanceRepository.findDistinctClassroomIdsSince(any(), anyString(), anyInt())).thenReturn(Flux.empty());
+        when(attendanceRepository.findDistinctInstitutionIdsSince(any(), anyString(), anyInt())).thenReturn(Flux.empty());
+
+        StepVerifier.create(reconciler.reconcile()).verifyComplete();
+
+        verify(attendanceRepository, never()).updateStudentNamesSince(any(), any(), any());
+    }
+
+    @Test
+    void usesTheLookbackWindowAsLowerDateBound() {
+        reconciler = new AttendanceNameReconciler(attendanceRepository, attendanceEnricher, 2, 4, Duration.ofDays(7));
+        ArgumentCaptor<LocalDate> since = ArgumentCaptor.forClass(LocalDate.class);
+        when(attendanceRepository.findDistinctStudentIdsSince(since.capture(), anyString(), anyInt())).thenReturn(Flux.empty());
+        when(attendanceRepository.findDistinctClassroomIdsSince(any(), anyString(), anyInt())).thenReturn(Flux.empty());
+        when(attendanceRepository.findDistinctInstitutionIdsSince(any(), anyString(), anyInt())).thenReturn(Flux.empty());
+
+        StepVerifier.create(reconciler.reconcile()).verifyComplete();
+
+        assertEquals(List.of(LocalDate.now().minusDays(7)), since.getAllValues());
+    }
+}
@@ -0,0 +1,38 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    @Test
+    void roundTripsThroughOpaqueToken() {
+        PageCursor cursor = new PageCursor(LocalDate.of(2025, 3, 14), UUID.randomUUID());
+
+        String token = cursor.encode();
+
+        assertFalse(token.contains(cursor.id().toString()));
+        assertEquals(cursor, PageCursor.decode(token));
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("no-es-un-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("%%%"));
+    }
+
+    @Test
+    void startsFromTheFirstPageWithoutCursor() {
+        CursorRequest request = CursorRequest.of(null, null);
+
+        assertEquals(PageCursor.START, request.after());
+        assertEquals(PageCursor.START, PageCursor.decodeOrStart(" "));
+        assertThrows(IllegalArgumentException.class, () -> CursorRequest.of(null, 0));
+    }
+}
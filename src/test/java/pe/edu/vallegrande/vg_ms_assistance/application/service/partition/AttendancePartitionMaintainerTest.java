@@ -0,0 +1,111 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.partition;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.AttendanceRepository;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.EmbeddedPostgresDatabases;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataR2dbcTest(properties = "spring.flyway.enabled=false")
+class AttendancePartitionMaintainerTest {
+
+    // Las migraciones ya crean el año actual y el siguiente; el maintainer con years-ahead=2 agrega este
+    private static final int YEAR = LocalDate.now().getYear() + 2;
+    private static final String PARTITION = "attendance_records_y" + YEAR;
+    private static final LocalDate DAY = LocalDate.of(YEAR, 3, 14);
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedPostgresDatabases.register(registry, EmbeddedPostgresDatabases.PRIMARY);
+    }
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private AttendancePartitionMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        dropPartition();
+        databaseClient.sql("DELETE FROM attendance_records WHERE attendance_date = :day").bind("day", DAY).then().block();
+        maintainer = new AttendancePartitionMaintainer(attendanceRepository, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dropPartition();
+    }
+
+    @Test
+    void movesTheYearRowsOutOfTheDefaultPartitionAndAttachesTheNewOne() {
+        AttendanceRecord early = attendanceRepository.save(record("S1")).block();
+        assertThat(partitionOf(early.getId())).isEqualTo("attendance_records_default");
+
+        StepVerifier.create(maintainer.ensurePartitions()).verifyComplete();
+
+        assertThat(partitionOf(early.getId())).isEqualTo(PARTITION);
+        assertThat(databaseClient.sql("SELECT count(*) AS c FROM attendance_records_default WHERE attendance_date = :day")
+                .bind("day", DAY).map(row -> row.get("c", Long.class)).one().block()).isZero();
+        // Las filas nuevas del año van directo a su partición, con el índice único ya aplicado
+        AttendanceRecord later = attendanceRepository.save(record("S2")).block();
+        assertThat(partitionOf(later.getId())).isEqualTo(PARTITION);
+        StepVerifier.create(attendanceRepository.insertIfAbsent(record("S2"))).verifyComplete();
+    }
+
+    @Test
+    void repeatedRunsLeaveExistingPartitionsAsTheyAre() {
+        StepVerifier.create(maintainer.ensurePartitions()).verifyComplete();
+        AttendanceRecord saved = attendanceRepository.save(record("S1")).block();
+
+        StepVerifier.create(maintainer.ensurePartitions()).verifyComplete();
+        StepVerifier.create(attendanceRepository.createPartition(YEAR)).expectNext(false).verifyComplete();
+
+        assertThat(partitionOf(saved.getId())).isEqualTo(PARTITION);
+        assertThat(attendanceRepository.findById(saved.getId()).block()).isNotNull();
+    }
+
+    private String partitionOf(UUID id) {
+        return databaseClient.sql("SELECT tableoid::regclass::text AS partition FROM attendance_records WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get("partition", String.class))
+                .one()
+                .block();
+    }
+
+    private void dropPartition() {
+        databaseClient.sql("DROP TABLE IF EXISTS " + PARTITION).then().block();
+    }
+
+    private static AttendanceRecord record(String studentId) {
+        LocalDateTime now = LocalDateTime.now();
+        return AttendanceRecord.builder()
+                .studentId(studentId)
+                .classroomId("C1")
+                .institutionId("I1")
+                .attendanceDate(DAY)
+                .academicYear(YEAR)
+                .attendanceStatus(AttendanceStatus.PRESENTE)
+                .justified(false)
+                .registeredBy("test")
+                .registeredAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package pe.edu.vallegrande.vg_ms_assistance.application.service.rollup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.AttendanceRepository;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AttendanceDailyRollupTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 3, 3);
+
+    @Mock
+    private AttendanceRepository attendanceRepository;
+
+    private AttendanceDailyRollup rollup;
+
+    @BeforeEach
+    void setUp() {
+        rollup = new AttendanceDailyRollup(attendanceRepository);
+    }
+
+    @Test
+    void groupsBulkRecordsIntoOneAdjustmentPerKeyInASingleStatement() {
+        when(attendanceRepository.adjustDailyRollup(any(), any(), any(), any(), any()))
+                .thenReturn(Mono.just(2L));
+
+        List<AttendanceRecord> records = List.of(
+                record("C1", AttendanceStatus.PRESENTE),
+                record("C1", AttendanceStatus.PRESENTE),
+                record("C1", AttendanceStatus.AUSENTE),
+                record("C1", AttendanceStatus.PRESENTE));
+
+        StepVerifier.create(rollup.recordsAdded(records)).verifyComplete();
+
+        verify(attendanceRepository).adjustDailyRollup(
+                new String[]{"I1", "I1"}, new String[]{"C1", "C1"}, new LocalDate[]{DATE, DATE},
+                new String[]{"AUSENTE", "PRESENTE"}, new Long[]{1L, 3L});
+    }
+
+    @Test
+    void movesOneCountBetweenStatuses() {
+        when(attendanceRepository.adjustDailyRollup(any(), any(), any(), any(), any()))
+                .thenReturn(Mono.just(2L));
+
+        StepVerifier.create(rollup.statusChanged(record("C1", AttendanceStatus.JUSTIFICADO), AttendanceStatus.AUSENTE))
+                .verifyComplete();
+
+        verify(attendanceRepository).adjustDailyRollup(
+                new String[]{"I1", "I1"}, new String[]{"C1", "C1"}, new LocalDate[]{DATE, DATE},
+                new String[]{"AUSENTE", "JUSTIFICADO"}, new Long[]{-1L, 1L});
+    }
+
+    @Test
+    void skipsTheStatementWhenNothingWasAdded() {
+        StepVerifier.create(rollup.recordsAdded(List.of())).verifyComplete();
+
+        verifyNoInteractions(attendanceRepository);
+    }
+
+    @Test
+    void ignoresUpdatesThatKeepTheStatus() {
+        StepVerifier.create(rollup.statusChanged(record("C1", AttendanceStatus.PRESENTE), AttendanceStatus.PRESENTE))
+                .verifyComplete();
+
+        verifyNoInteractions(attendanceRepository);
+    }
+
+    private static AttendanceRecord record(String classroomId, AttendanceStatus status) {
+        return AttendanceRecord.builder()
+                .institutionId("I1")
+                .classroomId(classroomId)
+                .attendanceDate(DATE)
+                .attendanceStatus(status)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pe.edu.vallegrande.vg_ms_assistance.application.config.ReferenceCacheProperties;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReferenceDataCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger remoteCalls = new AtomicInteger();
+
+    private ReferenceDataCache<String> cache;
+
+    @BeforeEach
+    void setUp() {
+        ReferenceCacheProperties.Spec spec = new ReferenceCacheProperties.Spec();
+        spec.setTtl(Duration.ofMinutes(30));
+        spec.setNegativeTtl(Duration.ofMinutes(1));
+        // Reloj manual: la expiración solo avanza con advance()
+        cache = new ReferenceDataCache<>("students", spec, new SimpleMeterRegistry(), now::get);
+    }
+
+    @Test
+    void foundValuesLiveForTheTtl() {
+        Function<String, Mono<String>> loader = counting(Mono.just("Ana Pérez"));
+
+        StepVerifier.create(cache.get("S1", loader)).expectNext("Ana Pérez").verifyComplete();
+        advance(Duration.ofMinutes(29));
+        StepVerifier.create(cache.get("S1", loader)).expectNext("Ana Pérez").verifyComplete();
+        assertThat(remoteCalls).hasValue(1);
+
+        advance(Duration.ofMinutes(2));
+        StepVerifier.create(cache.get("S1", loader)).expectNext("Ana Pérez").verifyComplete();
+        assertThat(remoteCalls).hasValue(2);
+    }
+
+    @Test
+    void notFoundIdsLiveOnlyForTheNegativeTtl() {
+        Function<String, Mono<String>> loader = counting(Mono.empty());
+
+        StepVerifier.create(cache.get("S404", loader)).verifyComplete();
+        advance(Duration.ofSeconds(59));
+        StepVerifier.create(cache.get("S404", loader)).verifyComplete();
+        assertThat(remoteCalls).hasValue(1);
+
+        // Sin el TTL negativo seguiría guardado los 30 minutos de un nombre encontrado
+        advance(Duration.ofSeconds(2));
+        StepVerifier.create(cache.get("S404", loader)).verifyComplete();
+        assertThat(remoteCalls).hasValue(2);
+    }
+
+    @Test
+    void aNameFoundAfterANotFoundGetsTheFullTtl() {
+        StepVerifier.create(cache.get("S1", counting(Mono.empty()))).verifyComplete();
+        advance(Duration.ofMinutes(2));
+        StepVerifier.create(cache.get("S1", counting(Mono.just("Ana Pérez")))).expectNext("Ana Pérez").verifyComplete();
+
+        advance(Duration.ofMinutes(20));
+        StepVerifier.create(cache.get("S1", counting(Mono.just("otro")))).expectNext("Ana Pérez").verifyComplete();
+        assertThat(remoteCalls).hasValue(2);
+    }
+
+    @Test
+    void errorsAreNotCached() {
+        StepVerifier.create(cache.get("S1", counting(Mono.error(new IllegalStateException("timeout")))))
+                .verifyErrorMessage("timeout");
+        StepVerifier.create(cache.get("S1", counting(Mono.just("Ana Pérez")))).expectNext("Ana Pérez").verifyComplete();
+
+        assertThat(remoteCalls).hasValue(2);
+    }
+
+    private Function<String, Mono<String>> counting(Mono<String> result) {
+        return key -> Mono.defer(() -> {
+            remoteCalls.incrementAndGet();
+            return result;
+        });
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+}
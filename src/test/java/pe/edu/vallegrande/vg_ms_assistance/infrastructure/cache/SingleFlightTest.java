@@ -0,0 +1,150 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import pe.edu.vallegrande.vg_ms_assistance.application.config.ReferenceCacheProperties;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentSubscribersShareOneRemoteCall() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger remoteCalls = new AtomicInteger();
+        Sinks.One<String> remote = Sinks.one();
+
+        List<Mono<String>> subscribers = Flux.range(0, 20)
+                .map(i -> singleFlight.execute("S1", key -> {
+                    remoteCalls.incrementAndGet();
+                    return remote.asMono();
+                }))
+                .collectList()
+                .block();
+
+        StepVerifier.create(Flux.merge(subscribers).collectList())
+                .then(() -> remote.tryEmitValue("Ana Pérez"))
+                .assertNext(names -> assertThat(names).hasSize(20).containsOnly("Ana Pérez"))
+                .verifyComplete();
+
+        assertThat(remoteCalls).hasValue(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void parallelSubscribersOnDifferentThreadsShareOneRemoteCall() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger remoteCalls = new AtomicInteger();
+
+        Mono<String> lookup = singleFlight.execute("C1", key -> Mono.fromCallable(() -> {
+                    remoteCalls.incrementAndGet();
+                    return "3A";
+                })
+                .delayElement(Duration.ofMillis(200)));
+
+        StepVerifier.create(Flux.range(0, 50)
+                        .parallel(8)
+                        .runOn(Schedulers.parallel())
+                        .flatMap(i -> lookup)
+                        .sequential()
+                        .collectList())
+                .assertNext(names -> assertThat(names).hasSize(50).containsOnly("3A"))
+                .verifyComplete();
+
+        assertThat(remoteCalls).hasValue(1);
+    }
+
+    @Test
+    void releasesKeyAfterErrorSoNextCallRetries() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger remoteCalls = new AtomicInteger();
+
+        StepVerifier.create(singleFlight.execute("S1", key -> {
+                    remoteCalls.incrementAndGet();
+                    return Mono.<String>error(new IllegalStateException("timeout"));
+                }))
+                .verifyError(IllegalStateException.class);
+        assertThat(singleFlight.inFlightCount()).isZero();
+
+        StepVerifier.create(singleFlight.execute("S1", key -> {
+                    remoteCalls.incrementAndGet();
+                    return Mono.just("Ana Pérez");
+                }))
+                .expectNext("Ana Pérez")
+                .verifyComplete();
+
+        assertThat(remoteCalls).hasValue(2);
+    }
+
+    @Test
+    void releasesKeyWhenTheOnlySubscriberCancels() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger remoteCalls = new AtomicInteger();
+        AtomicInteger remoteCancels = new AtomicInteger();
+
+        StepVerifier.create(singleFlight.execute("S1", key -> {
+                    remoteCalls.incrementAndGet();
+                    return Mono.<String>never().doOnCancel(remoteCancels::incrementAndGet);
+                }))
+                .expectSubscription()
+                .thenCancel()
+                .verify();
+
+        assertThat(remoteCancels).hasValue(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+
+        StepVerifier.create(singleFlight.execute("S1", key -> {
+                    remoteCalls.incrementAndGet();
+                    return Mono.just("Ana Pérez");
+                }))
+                .expectNext("Ana Pérez")
+                .verifyComplete();
+        assertThat(remoteCalls).hasValue(2);
+    }
+
+    @Test
+    void releasesKeyAfterAnEmptyResult() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        StepVerifier.create(singleFlight.execute("S404", key -> Mono.empty())).verifyComplete();
+
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void cacheMissesForTheSameIdAreCoalesced() {
+        ReferenceDataCache<String> cache = new ReferenceDataCache<>(
+                "students", new ReferenceCacheProperties.Spec(), new SimpleMeterRegistry());
+        AtomicInteger remoteCalls = new AtomicInteger();
+        Sinks.One<String> remote = Sinks.one();
+
+        Flux<String> concurrentLookups = Flux.range(0, 30)
+                .flatMap(i -> cache.get("S1", key -> {
+                    remoteCalls.incrementAndGet();
+                    return remote.asMono();
+                }));
+
+        StepVerifier.create(concurrentLookups.collectList())
+                .then(() -> remote.tryEmitValue("Ana Pérez"))
+                .assertNext(names -> assertThat(names).hasSize(30))
+                .verifyComplete();
+
+        StepVerifier.create(cache.get("S1", key -> {
+                    remoteCalls.incrementAndGet();
+                    return Mono.just("otro");
+                }))
+                .expectNext("Ana Pérez")
+                .verifyComplete();
+
+        assertThat(remoteCalls).hasValue(1);
+    }
+}
@@ -0,0 +1,79 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.StudentDTO;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiResponseStreamDecoderTest {
+
+    private final ApiResponseStreamDecoder decoder = new ApiResponseStreamDecoder(new ObjectMapper());
+
+    @Test
+    void decodesDataArrayFedOneByteAtATime() {
+        String json = "{\"success\":true,\"message\":\"OK\",\"meta\":{\"data\":[1]},\"data\":["
+                + "{\"studentId\":\"S1\",\"personalInfo\":{\"names\":\"Ana\",\"lastNames\":\"Pérez\"}},"
+                + "null,"
+                + "{\"studentId\":\"S2\",\"tags\":[{\"a\":1}],\"fullName\":\"Luis Soto\"}"
+                + "],\"page\":1}";
+
+        StepVerifier.create(decoder.decodeData(chunks(json, 1), StudentDTO.class))
+                .expectNextMatches(s -> "S1".equals(s.getId()) && "Ana Pérez".equals(s.getDisplayName()))
+                .expectNextMatches(s -> "S2".equals(s.getId()) && "Luis Soto".equals(s.getDisplayName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void decodesSingleObjectData() {
+        String json = "{\"success\":true,\"data\":{\"studentId\":\"S1\",\"fullName\":\"Ana Pérez\"}}";
+
+        StepVerifier.create(decoder.decodeData(chunks(json, 7), StudentDTO.class))
+                .expectNextMatches(s -> "S1".equals(s.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void emitsNothingForNullData() {
+        StepVerifier.create(decoder.decodeData(chunks("{\"success\":false,\"data\":null}", 5), StudentDTO.class))
+                .verifyComplete();
+    }
+
+    @Test
+    void pullsNetworkBuffersOnlyAsElementsAreRequested() {
+        StringBuilder json = new StringBuilder("{\"success\":true,\"data\":[");
+        for (int i = 0; i < 1000; i++) {
+            json.append(i > 0 ? "," : "").append("{\"studentId\":\"S").append(i).append("\"}");
+        }
+        json.append("]}");
+        AtomicInteger buffersRequested = new AtomicInteger();
+        Flux<DataBuffer> body = chunks(json.toString(), 64).doOnNext(buffer -> buffersRequested.incrementAndGet());
+
+        StepVerifier.create(decoder.decodeData(body, StudentDTO.class), 5)
+                .expectNextCount(5)
+                .thenCancel()
+                .verify();
+
+        assertThat(buffersRequested.get()).isLessThan(10);
+    }
+
+    private static Flux<DataBuffer> chunks(String json, int size) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<byte[]> parts = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += size) {
+            byte[] part = new byte[Math.min(size, bytes.length - i)];
+            System.arraycopy(bytes, i, part, 0, part.length);
+            parts.add(part);
+        }
+        return Flux.fromIterable(parts).map(DefaultDataBufferFactory.sharedInstance::wrap);
+    }
+}
@@ -0,0 +1,255 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import pe.edu.vallegrande.vg_ms_assistance.application.config.ExternalServicesProperties;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DownstreamGuardTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void hedgeWinsWhenPrimaryIsSlow() {
+        DownstreamGuard guard = guard(true, Duration.ofSeconds(2));
+        AtomicInteger calls = new AtomicInteger();
+
+        Mono<String> lookup = guard.lookup(() -> calls.incrementAndGet() == 1
+                ? Mono.just("lento").delayElement(Duration.ofSeconds(1))
+                : Mono.just("rápido"));
+
+        StepVerifier.create(lookup)
+                .expectNext("rápido")
+                .verifyComplete();
+
+        assertThat(calls).hasValue(2);
+        assertThat(meterRegistry.counter("downstream.hedge.sent", "name", "test").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("downstream.hedge.wins", "name", "test").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void noHedgeWhenPrimaryAnswersBeforeDelay() {
+        DownstreamGuard guard = guard(true, Duration.ofSeconds(2));
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(guard.lookup(() -> {
+                    calls.incrementAndGet();
+                    return Mono.just("ok");
+                }))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertThat(calls).hasValue(1);
+        assertThat(meterRegistry.counter("downstream.hedge.sent", "name", "test").count()).isZero();
+    }
+
+    @Test
+    void fastPrimaryErrorDoesNotBeatRunningHedge() {
+        DownstreamGuard guard = guard(true, Duration.ofSeconds(2));
+        AtomicInteger calls = new AtomicInteger();
+
+        Mono<String> lookup = guard.lookup(() -> calls.incrementAndGet() == 1
+                ? Mono.<String>error(new IllegalStateException("503")).delaySubscription(Duration.ofMillis(100))
+                : Mono.just("hedge").delayElement(Duration.ofMillis(100)));
+
+        StepVerifier.create(lookup)
+                .expectNext("hedge")
+                .verifyComplete();
+    }
+
+    @Test
+    void primaryErrorBeforeHedgeFailsWithoutWaiting() {
+        DownstreamGuard guard = guard(true, Duration.ofSeconds(2));
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(guard.lookup(() -> {
+                    calls.incrementAndGet();
+                    return Mono.<String>error(new IllegalStateException("503"));
+                }))
+                .verifyErrorMessage("503");
+
+        assertThat(calls).hasValue(1);
+        assertThat(meterRegistry.counter("downstream.hedge.sent", "name", "test").count()).isZero();
+    }
+
+    @Test
+    void emptyHedgeAnswerCountsAsWin() {
+        DownstreamGuard guard = guard(true, Duration.ofSeconds(2));
+        AtomicInteger calls = new AtomicInteger();
+
+        // Un 404 (vacío) de la segunda petición también es la respuesta que se usa
+        StepVerifier.create(guard.lookup(() -> calls.incrementAndGet() == 1
+                        ? Mono.<String>never()
+                        : Mono.<String>empty()))
+                .verifyComplete();
+
+        assertThat(meterRegistry.counter("downstream.hedge.sent", "name", "test").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("downstream.hedge.wins", "name", "test").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void primaryThatAnswersAfterTheHedgeIsSentIsNotAHedgeWin() {
+        DownstreamGuard guard = guard(true, Duration.ofSeconds(2));
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(guard.lookup(() -> calls.incrementAndGet() == 1
+                        ? Mono.just("primera").delayElement(Duration.ofMillis(100))
+                        : Mono.just("segunda").delayElement(Duration.ofSeconds(1))))
+                .expectNext("primera")
+                .verifyComplete();
+
+        assertThat(meterRegistry.counter("downstream.hedge.sent", "name", "test").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("downstream.hedge.wins", "name", "test").count()).isZero();
+    }
+
+    @Test
+    void hedgedLookupKeepsTheDeadlineOfTheWholeLookup() {
+        // Con el deadline por petición la segunda vencería a los 200 + 300 ms
+        DownstreamGuard guard = guard(true, Duration.ofMillis(300), Duration.ofMillis(200));
+
+        Duration elapsed = StepVerifier.create(guard.lookup(Mono::<String>never))
+                .verifyError(TimeoutException.class);
+
+        assertThat(elapsed).isLessThan(Duration.ofMillis(450));
+        assertThat(meterRegistry.counter("downstream.hedge.sent", "name", "test").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void noHedgeIsSentOnceTheDeadlineHasPassed() {
+        DownstreamGuard guard = guard(true, Duration.ofMillis(100), Duration.ofMillis(200));
+
+        StepVerifier.create(guard.lookup(Mono::<String>never))
+                .verifyError(TimeoutException.class);
+
+        assertThat(meterRegistry.counter("downstream.hedge.sent", "name", "test").count()).isZero();
+    }
+
+    @Test
+    void slowPrimaryThatLosesTheRaceStillCountsForTheHedgeDelay() {
+        DownstreamGuard guard = guard(true, Duration.ofSeconds(2));
+
+        // La segunda petición responde enseguida: si solo se midieran las respuestas ganadoras desde que
+        // empezó cada petición, el retraso bajaría al mínimo (20 ms)
+        for (int i = 0; i < 32; i++) {
+            AtomicInteger calls = new AtomicInteger();
+            guard.lookup(() -> calls.incrementAndGet() == 1
+                            ? Mono.just("lento").delayElement(Duration.ofSeconds(1))
+                            : Mono.just("rápido"))
+                    .block();
+        }
+
+        assertThat(guard.hedgeDelay()).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+        assertThat(meterRegistry.timer("downstream.lookup.latency", "name", "test").count()).isEqualTo(32);
+    }
+
+    @Test
+    void failedLookupsAreRecorded() {
+        DownstreamGuard guard = guard(false, Duration.ofMillis(10));
+
+        for (int i = 0; i < 32; i++) {
+            guard.lookup(() -> Mono.just("lento").delayElement(Duration.ofSeconds(1)))
+                    .onErrorResume(TimeoutException.class, error -> Mono.empty())
+                    .block();
+        }
+
+        // Sin muestras seguiría en el retraso inicial (50 ms)
+        assertThat(guard.hedgeDelay()).isLessThan(Duration.ofMillis(50));
+        assertThat(meterRegistry.timer("downstream.lookup.latency", "name", "test").count()).isEqualTo(32);
+    }
+
+    @Test
+    void deadlineFailsSlowLookup() {
+        DownstreamGuard guard = guard(false, Duration.ofMillis(100));
+
+        StepVerifier.create(guard.lookup(() -> Mono.just("lento").delayElement(Duration.ofSeconds(1))))
+                .verifyError(TimeoutException.class);
+    }
+
+    @Test
+    void openCircuitRejectsLookupsWithoutCallingTheService() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("test");
+        DownstreamGuard guard = guard(true, circuitBreaker, Bulkhead.ofDefaults("test"));
+        AtomicInteger subscriptions = new AtomicInteger();
+        circuitBreaker.transitionToOpenState();
+
+        StepVerifier.create(guard.lookup(() -> Mono.just("ok").doOnSubscribe(s -> subscriptions.incrementAndGet())))
+                .expectErrorSatisfies(error -> assertThat(DownstreamGuard.isRejected(error)).isTrue())
+                .verify(Duration.ofMillis(500));
+        StepVerifier.create(guard.protect(Mono.just("ok").doOnSubscribe(s -> subscriptions.incrementAndGet())))
+                .verifyError(CallNotPermittedException.class);
+
+        // Falla antes del retraso del hedging: no se envía una segunda petición
+        assertThat(subscriptions).hasValue(0);
+        assertThat(meterRegistry.counter("downstream.hedge.sent", "name", "test").count()).isZero();
+    }
+
+    @Test
+    void fullBulkheadRejectsExtraCallsUntilOneFinishes() {
+        Bulkhead bulkhead = Bulkhead.of("test", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        DownstreamGuard guard = guard(false, CircuitBreaker.ofDefaults("test"), bulkhead);
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        Disposable running = guard.protect(Mono.never()).subscribe();
+
+        StepVerifier.create(guard.lookup(() -> Mono.just("ok").doOnSubscribe(s -> subscriptions.incrementAndGet())))
+                .expectErrorSatisfies(error -> {
+                    assertThat(error).isInstanceOf(BulkheadFullException.class);
+                    assertThat(DownstreamGuard.isRejected(error)).isTrue();
+                })
+                .verify(Duration.ofMillis(500));
+        assertThat(subscriptions).hasValue(0);
+
+        // Al cancelarse la llamada en curso se libera su permiso
+        running.dispose();
+        StepVerifier.create(guard.lookup(() -> Mono.just("ok")))
+                .expectNext("ok")
+                .verifyComplete();
+    }
+
+    @Test
+    void onlyLocalRejectionsCountAsRejected() {
+        assertThat(DownstreamGuard.isRejected(new TimeoutException())).isFalse();
+        assertThat(DownstreamGuard.isRejected(new IllegalStateException("503"))).isFalse();
+        assertThat(DownstreamGuard.isRejected(
+                CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("test")))).isTrue();
+        assertThat(DownstreamGuard.isRejected(BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("test"))))
+                .isTrue();
+    }
+
+    private DownstreamGuard guard(boolean hedgingEnabled, Duration deadline) {
+        return guard(hedgingEnabled, deadline, Duration.ofMillis(50));
+    }
+
+    private DownstreamGuard guard(boolean hedgingEnabled, Duration deadline, Duration hedgeDelay) {
+        ExternalServicesProperties.Service service = new ExternalServicesProperties.Service();
+        service.setDeadline(deadline);
+        service.getHedging().setEnabled(hedgingEnabled);
+        service.getHedging().setInitialDelay(hedgeDelay);
+        return new DownstreamGuard("test", CircuitBreaker.ofDefaults("test"), Bulkhead.ofDefaults("test"),
+                service, meterRegistry);
+    }
+
+    private DownstreamGuard guard(boolean hedgingEnabled, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        ExternalServicesProperties.Service service = new ExternalServicesProperties.Service();
+        service.setDeadline(Duration.ofSeconds(2));
+        service.getHedging().setEnabled(hedgingEnabled);
+        service.getHedging().setInitialDelay(Duration.ofMillis(50));
+        return new DownstreamGuard("test", circuitBreaker, bulkhead, service, meterRegistry);
+    }
+}
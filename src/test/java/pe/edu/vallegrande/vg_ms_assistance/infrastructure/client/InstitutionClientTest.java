@@ -0,0 +1,77 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import pe.edu.vallegrande.vg_ms_assistance.application.config.ExternalServicesProperties;
+import pe.edu.vallegrande.vg_ms_assistance.application.config.ReferenceCacheProperties;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.cache.ReferenceDataCache;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstitutionClientTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger remoteCalls = new AtomicInteger();
+
+    @Test
+    void fullBulkheadDegradesInstitutionAndClassroomLookupsToEmptyRightAway() {
+        Bulkhead bulkhead = Bulkhead.of("institutions", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        DownstreamGuard guard = new DownstreamGuard("institutions", CircuitBreaker.ofDefaults("institutions"), bulkhead,
+                new ExternalServicesProperties.Service(), meterRegistry);
+        InstitutionClient client = client(guard);
+        Disposable running = guard.protect(Mono.never()).subscribe();
+
+        StepVerifier.create(client.getInstitutionById("I1")).expectComplete().verify(Duration.ofMillis(500));
+        StepVerifier.create(client.getClassroomById("C1")).expectComplete().verify(Duration.ofMillis(500));
+
+        assertThat(remoteCalls).hasValue(0);
+        running.dispose();
+    }
+
+    @Test
+    void serverErrorsDegradeToEmpty() {
+        DownstreamGuard guard = new DownstreamGuard("institutions", CircuitBreaker.ofDefaults("institutions"),
+                Bulkhead.ofDefaults("institutions"), new ExternalServicesProperties.Service(), meterRegistry);
+        InstitutionClient client = client(guard);
+
+        StepVerifier.create(client.getInstitutionById("I1")).verifyComplete();
+        StepVerifier.create(client.getClassroomById("C1")).verifyComplete();
+
+        assertThat(remoteCalls).hasValue(2);
+    }
+
+    // El servicio remoto responde siempre 500
+    private InstitutionClient client(DownstreamGuard guard) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.fromSupplier(() -> {
+                    remoteCalls.incrementAndGet();
+                    return ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body("{}")
+                            .build();
+                }))
+                .build();
+        return new InstitutionClient(webClient,
+                new ReferenceDataCache<>("institutions", new ReferenceCacheProperties.Spec(), meterRegistry),
+                new ReferenceDataCache<>("classrooms", new ReferenceCacheProperties.Spec(), meterRegistry),
+                new ApiResponseStreamDecoder(new ObjectMapper()), guard);
+    }
+}
@@ -0,0 +1,93 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import pe.edu.vallegrande.vg_ms_assistance.application.config.ExternalServicesProperties;
+import pe.edu.vallegrande.vg_ms_assistance.application.config.ReferenceCacheProperties;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.cache.ReferenceDataCache;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.StudentDTO;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentClientTest {
+
+    private static final String STUDENT_JSON = "{\"success\":true,\"data\":{\"studentId\":\"S1\",\"fullName\":\"Ana Pérez\"}}";
+
+    private final AtomicInteger remoteCalls = new AtomicInteger();
+    private final AtomicReference<HttpStatus> remoteStatus = new AtomicReference<>(HttpStatus.OK);
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("students");
+
+    private StudentClient client;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.fromSupplier(() -> {
+                    remoteCalls.incrementAndGet();
+                    HttpStatus status = remoteStatus.get();
+                    return ClientResponse.create(status)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(status == HttpStatus.OK ? STUDENT_JSON : "{}")
+                            .build();
+                }))
+                .build();
+        DownstreamGuard guard = new DownstreamGuard("students", circuitBreaker, Bulkhead.ofDefaults("students"),
+                new ExternalServicesProperties.Service(), meterRegistry);
+        client = new StudentClient(webClient,
+                new ReferenceDataCache<>("students", new ReferenceCacheProperties.Spec(), meterRegistry),
+                new ApiResponseStreamDecoder(new ObjectMapper()), guard);
+    }
+
+    @Test
+    void openCircuitDegradesToEmptyWithoutCallingTheServiceAndIsNotCachedAsNotFound() {
+        circuitBreaker.transitionToOpenState();
+
+        StepVerifier.create(client.getStudentById("S1")).verifyComplete();
+        assertThat(remoteCalls).hasValue(0);
+
+        // El rechazo llegó hasta el cliente como error, no como "no encontrado": al cerrarse el circuito se consulta
+        circuitBreaker.transitionToClosedState();
+        StepVerifier.create(client.getStudentById("S1"))
+                .assertNext(student -> assertThat(student.getDisplayName()).isEqualTo("Ana Pérez"))
+                .verifyComplete();
+        assertThat(remoteCalls).hasValue(1);
+    }
+
+    @Test
+    void serverErrorsDegradeToEmptyAndAreRetriedOnTheNextLookup() {
+        remoteStatus.set(HttpStatus.SERVICE_UNAVAILABLE);
+
+        StepVerifier.create(client.getStudentById("S1")).verifyComplete();
+
+        remoteStatus.set(HttpStatus.OK);
+        StepVerifier.create(client.getStudentById("S1"))
+                .assertNext(student -> assertThat(student.getId()).isEqualTo("S1"))
+                .verifyComplete();
+        assertThat(remoteCalls).hasValue(2);
+    }
+
+    @Test
+    void notFoundIsCachedAsMissing() {
+        remoteStatus.set(HttpStatus.NOT_FOUND);
+
+        StepVerifier.create(client.getStudentById("S404")).verifyComplete();
+        StepVerifier.create(client.getStudentById("S404")).verifyComplete();
+
+        assertThat(remoteCalls).hasValue(1);
+    }
+}
@@ -0,0 +1,60 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.csv;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.request.AttendanceImportRow;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AttendanceCsvReaderTest {
+
+    private static final String HEADER =
+            "\uFEFFstudent_id,classroom_id,institution_id,attendance_date,academic_year,attendance_status,justification_reason\r\n";
+
+    @Test
+    void joinsQuotedLineBreaksAcrossBuffersAndKeepsTheStartingLine() {
+        List<AttendanceImportRow> rows = read("secretaria",
+                HEADER + "S1,C1,I1,2025-03-14,2025,tardanza,\"Cita, ",
+                "con \"\"médico\"\"\r\nen la tarde\"\r\n\r\nS2,C1,I1,2025-03-14,2025,PRESENTE,\r\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).line()).isEqualTo(2);
+        assertThat(rows.get(0).error()).isNull();
+        assertThat(rows.get(0).request().getAttendanceStatus()).isEqualTo(AttendanceStatus.TARDANZA);
+        assertThat(rows.get(0).request().getAttendanceDate()).isEqualTo(LocalDate.of(2025, 3, 14));
+        assertThat(rows.get(0).request().getJustificationReason()).isEqualTo("Cita, con \"médico\"\nen la tarde");
+        assertThat(rows.get(0).request().getRegisteredBy()).isEqualTo("secretaria");
+        assertThat(rows.get(1).line()).isEqualTo(5);
+        assertThat(rows.get(1).request().getJustificationReason()).isNull();
+    }
+
+    @Test
+    void reportsBadValuesPerRowAndMissingColumnsForTheFile() {
+        List<AttendanceImportRow> rows = read("secretaria",
+                HEADER + "S1,C1,I1,2025-13-01,2025,VOLANDO,\r\nS2,C1\r\n");
+
+        assertThat(rows).extracting(AttendanceImportRow::error).containsExactly(
+                "Valor no válido en attendanceDate: 2025-13-01; Valor no válido en attendanceStatus: VOLANDO",
+                "La fila tiene 2 columnas y la cabecera 7");
+        assertThatThrownBy(() -> read(null, HEADER))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Faltan columnas en la cabecera del CSV: registeredBy");
+        assertThatThrownBy(() -> read("secretaria", ""))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("El archivo CSV está vacío o no tiene cabecera");
+    }
+
+    private static List<AttendanceImportRow> read(String registeredBy, String... chunks) {
+        Flux<DataBuffer> content = Flux.fromArray(chunks)
+                .map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+        return AttendanceCsvReader.read(content, registeredBy).collectList().block();
+    }
+}
@@ -0,0 +1,59 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.csv;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+import pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.response.AttendanceResponse;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttendanceCsvWriterTest {
+
+    @Test
+    void quotesFieldsWithSeparatorsAndLeavesNullsEmpty() {
+        UUID id = UUID.randomUUID();
+        AttendanceResponse row = AttendanceResponse.builder()
+                .id(id)
+                .studentId("S1")
+                .studentName("Pérez, \"Juan\"")
+                .attendanceDate(LocalDate.of(2025, 3, 14))
+                .attendanceStatus(AttendanceStatus.TARDANZA)
+                .arrivalTime(LocalTime.of(8, 5))
+                .build();
+
+        String[] lines = write(Flux.just(row)).split("\r\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("\uFEFFid,studentId,studentName,");
+        assertThat(lines[1]).isEqualTo(id + ",S1,\"Pérez, \"\"Juan\"\"\",,,,,2025-03-14,,TARDANZA,08:05,,,,,");
+    }
+
+    @Test
+    void writesTheHeaderOnceAcrossBuffersAndAloneForEmptyExports() {
+        Flux<AttendanceResponse> rows = Flux.fromStream(IntStream.range(0, 150)
+                .mapToObj(i -> AttendanceResponse.builder().id(UUID.randomUUID()).studentId("S" + i).build()));
+
+        assertThat(write(rows).split("\r\n")).hasSize(151);
+        assertThat(write(Flux.empty())).isEqualTo("\uFEFF" + String.join(",", AttendanceCsvWriter.COLUMNS) + "\r\n");
+    }
+
+    private static String write(Flux<AttendanceResponse> rows) {
+        return AttendanceCsvWriter.write(rows, DefaultDataBufferFactory.sharedInstance)
+                .map(buffer -> {
+                    String text = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return text;
+                })
+                .reduce(String::concat)
+                .block();
+    }
+}
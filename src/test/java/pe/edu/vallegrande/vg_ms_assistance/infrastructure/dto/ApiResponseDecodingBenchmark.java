@@ -0,0 +1,110 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la decodificación anterior de {@link ApiResponse} (árbol JsonNode + ObjectMapper nuevo + convertValue)
+ * con la actual (enlace directo de "data" a la lista de DTOs con el mapper compartido).
+ *
+ * Ejecutar con: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=pe.edu.vallegrande.vg_ms_assistance.infrastructure.dto.ApiResponseDecodingBenchmark}
+ * o desde el IDE con el método {@code main}. Usar {@code -prof gc} para ver la asignación por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseDecodingBenchmark {
+
+    private static final TypeReference<ApiResponse<StudentDTO>> STUDENTS = new TypeReference<>() {};
+    private static final TypeReference<LegacyApiResponse> LEGACY = new TypeReference<>() {};
+
+    @Param({"1", "100", "5000"})
+    private int students;
+
+    private ObjectMapper sharedMapper;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        sharedMapper = Jackson2ObjectMapperBuilder.json().build();
+        StringBuilder json = new StringBuilder("{\"success\":true,\"message\":\"OK\",\"data\":");
+        if (students == 1) {
+            json.append(student(0));
+        } else {
+            json.append('[');
+            for (int i = 0; i < students; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append(student(i));
+            }
+            json.append(']');
+        }
+        payload = json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<StudentDTO> jsonNodeTree() throws Exception {
+        LegacyApiResponse response = sharedMapper.readValue(payload, LEGACY);
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode data = response.data;
+        if (data.isArray()) {
+            return mapper.convertValue(data,
+                    mapper.getTypeFactory().constructCollectionType(List.class, StudentDTO.class));
+        }
+        List<StudentDTO> list = new ArrayList<>();
+        list.add(mapper.convertValue(data, StudentDTO.class));
+        return list;
+    }
+
+    @Benchmark
+    public List<StudentDTO> directBinding() throws Exception {
+        return sharedMapper.readValue(payload, STUDENTS).getDataAsList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ApiResponseDecodingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static String student(int i) {
+        return "{\"studentId\":\"" + String.format("%08d-0000-0000-0000-000000000000", i) + "\","
+                + "\"status\":\"ACTIVE\",\"institutionId\":\"I1\",\"classroomId\":\"C" + (i % 40) + "\","
+                + "\"personalInfo\":{\"names\":\"Nombre " + i + "\",\"lastNames\":\"Apellido " + i + "\","
+                + "\"documentType\":\"DNI\",\"documentNumber\":\"" + (70000000 + i) + "\"}}";
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class LegacyApiResponse {
+        public Boolean success;
+        public String message;
+        public JsonNode data;
+    }
+}
@@ -0,0 +1,101 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataR2dbcTest(properties = "spring.flyway.enabled=false")
+class AttendanceInsertRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 2);
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedPostgresDatabases.register(registry, EmbeddedPostgresDatabases.PRIMARY);
+    }
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DELETE FROM attendance_records WHERE attendance_date = :day").bind("day", DAY).then().block();
+    }
+
+    @Test
+    void batchSkipsExistingRowsAndLaterDuplicatesAndSetsTheIdOnTheInsertedRecords() {
+        AttendanceRecord existing = attendanceRepository.insertIfAbsent(record("S1", AttendanceStatus.PRESENTE)).block();
+
+        AttendanceRecord alreadyRegistered = record("S1", AttendanceStatus.AUSENTE);
+        AttendanceRecord first = record("S2", AttendanceStatus.PRESENTE);
+        AttendanceRecord other = record("S3", AttendanceStatus.TARDANZA);
+        AttendanceRecord repeated = record("S2", AttendanceStatus.AUSENTE);
+        AttendanceRecord last = record("S4", AttendanceStatus.PERMISO);
+        List<AttendanceRecord> batch = List.of(alreadyRegistered, first, other, repeated, last);
+
+        List<AttendanceRecord> inserted = attendanceRepository.insertAllIfAbsent(batch).collectList().block();
+
+        // Se devuelven las mismas instancias del lote, y solo esas quedan con ID
+        assertThat(inserted).containsExactlyInAnyOrder(first, other, last);
+        assertThat(batch).filteredOn(record -> record.getId() != null).containsExactly(first, other, last);
+        assertThat(alreadyRegistered.getId()).isNull();
+        assertThat(repeated.getId()).isNull();
+
+        // Cada ID corresponde a la fila guardada; la repetida no pisó a la primera ni a la existente
+        Map<UUID, String> stored = databaseClient.sql("SELECT id, student_id, attendance_status FROM attendance_records " +
+                        "WHERE attendance_date = :day")
+                .bind("day", DAY)
+                .map(row -> Map.entry(row.get("id", UUID.class),
+                        row.get("student_id", String.class) + ":" + row.get("attendance_status", String.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block();
+        assertThat(stored).containsOnly(
+                Map.entry(existing.getId(), "S1:PRESENTE"),
+                Map.entry(first.getId(), "S2:PRESENTE"),
+                Map.entry(other.getId(), "S3:TARDANZA"),
+                Map.entry(last.getId(), "S4:PERMISO"));
+    }
+
+    @Test
+    void batchOfOnlyExistingRowsInsertsNothing() {
+        attendanceRepository.insertIfAbsent(record("S1", AttendanceStatus.PRESENTE)).block();
+        AttendanceRecord again = record("S1", AttendanceStatus.AUSENTE);
+
+        assertThat(attendanceRepository.insertAllIfAbsent(List.of(again)).collectList().block()).isEmpty();
+        assertThat(again.getId()).isNull();
+    }
+
+    private static AttendanceRecord record(String studentId, AttendanceStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        return AttendanceRecord.builder()
+                .studentId(studentId)
+                .classroomId("C1")
+                .institutionId("I1")
+                .attendanceDate(DAY)
+                .academicYear(2025)
+                .attendanceStatus(status)
+                .justified(false)
+                .registeredBy("test")
+                .registeredAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataR2dbcTest(properties = "spring.flyway.enabled=false")
+class AttendanceNameUpdateRepositoryTest {
+
+    private static final String STUDENT = "S-RENAMED";
+    private static final LocalDate SINCE = LocalDate.of(2025, 3, 1);
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedPostgresDatabases.register(registry, EmbeddedPostgresDatabases.PRIMARY);
+    }
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DELETE FROM attendance_records WHERE student_id = :studentId")
+                .bind("studentId", STUDENT).then().block();
+    }
+
+    @Test
+    void renamesOnlyTheRowsSinceTheLowerBound() {
+        insert(LocalDate.of(2024, 11, 20), "Ana");
+        insert(SINCE, "Ana");
+        insert(LocalDate.of(2025, 3, 10), "Ana María");
+
+        Long updated = attendanceRepository.updateStudentNamesSince(
+                SINCE, new String[]{STUDENT}, new String[]{"Ana María"}).block();
+
+        assertThat(updated).isEqualTo(1);
+        List<Map<String, Object>> rows = databaseClient.sql("SELECT attendance_date, student_name FROM attendance_records " +
+                        "WHERE student_id = :studentId ORDER BY attendance_date")
+                .bind("studentId", STUDENT)
+                .fetch().all().collectList().block();
+        assertThat(rows).extracting(row -> row.get("student_name"))
+                .containsExactly("Ana", "Ana María", "Ana María");
+    }
+
+    private void insert(LocalDate date, String studentName) {
+        LocalDateTime now = LocalDateTime.now();
+        attendanceRepository.save(AttendanceRecord.builder()
+                .studentId(STUDENT)
+                .studentName(studentName)
+                .classroomId("C1")
+                .institutionId("I1")
+                .attendanceDate(date)
+                .academicYear(date.getYear())
+                .attendanceStatus(AttendanceStatus.PRESENTE)
+                .justified(false)
+                .registeredBy("test")
+                .registeredAt(now)
+                .updatedAt(now)
+                .build()).block();
+    }
+}
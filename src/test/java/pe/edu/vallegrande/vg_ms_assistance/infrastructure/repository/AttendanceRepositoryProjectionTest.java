@@ -0,0 +1,113 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceColumnsRow;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceDateStatus;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceRecord;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceStatusCounts;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataR2dbcTest(properties = "spring.flyway.enabled=false")
+class AttendanceRepositoryProjectionTest {
+
+    private static final String INSTITUTION = "I-PROJECTION";
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedPostgresDatabases.register(registry, EmbeddedPostgresDatabases.PRIMARY);
+    }
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DELETE FROM attendance_records WHERE institution_id = :institutionId")
+                .bind("institutionId", INSTITUTION).then().block();
+    }
+
+    @Test
+    void studentStatusesReadOnlyDateAndStatusWithinTheRange() {
+        insert("S1", LocalDate.of(2025, 3, 4), AttendanceStatus.TARDANZA, LocalTime.of(8, 5));
+        insert("S1", LocalDate.of(2025, 3, 5), AttendanceStatus.AUSENTE, null);
+        insert("S1", LocalDate.of(2025, 4, 1), AttendanceStatus.PRESENTE, null);
+
+        List<AttendanceDateStatus> rows = attendanceRepository.findStatusesByStudentIdAndDateRange(
+                "S1", LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)).collectList().block();
+
+        assertThat(rows).extracting(AttendanceDateStatus::getAttendanceDate, AttendanceDateStatus::getAttendanceStatus)
+                .containsExactlyInAnyOrder(
+                        tuple(LocalDate.of(2025, 3, 4), AttendanceStatus.TARDANZA),
+                        tuple(LocalDate.of(2025, 3, 5), AttendanceStatus.AUSENTE));
+    }
+
+    @Test
+    void institutionColumnsMapEveryStoredColumnFromTheWindowStart() {
+        insert("S1", LocalDate.of(2024, 12, 31), AttendanceStatus.PRESENTE, null);
+        AttendanceRecord saved = insert("S1", LocalDate.of(2025, 3, 4), AttendanceStatus.TARDANZA, LocalTime.of(8, 5));
+
+        List<AttendanceColumnsRow> rows = attendanceRepository.findColumnsByInstitutionIdSince(
+                INSTITUTION, LocalDate.of(2025, 1, 1)).collectList().block();
+
+        assertThat(rows).containsExactly(AttendanceColumnsRow.of(saved));
+        assertThat(attendanceRepository.countByInstitutionIdAndAttendanceDateGreaterThanEqual(
+                INSTITUTION, LocalDate.of(2025, 1, 1)).block()).isEqualTo(1);
+    }
+
+    @Test
+    void dashboardCountsGroupWithinTheRangeAndFloorTheAverageArrival() {
+        insert("S1", LocalDate.of(2025, 3, 4), AttendanceStatus.PRESENTE, LocalTime.of(7, 0));
+        insert("S2", LocalDate.of(2025, 3, 4), AttendanceStatus.TARDANZA, LocalTime.of(7, 3));
+        insert("S1", LocalDate.of(2025, 3, 5), AttendanceStatus.AUSENTE, null);
+        insert("S1", LocalDate.of(2025, 4, 1), AttendanceStatus.PRESENTE, LocalTime.of(9, 0));
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        LocalDate to = LocalDate.of(2025, 3, 31);
+
+        assertThat(attendanceRepository.countDashboardPerClassroom(INSTITUTION, from, to).collectList().block())
+                .extracting(AttendanceStatusCounts::getGroupKey, AttendanceStatusCounts::getTotalRecords,
+                        AttendanceStatusCounts::getPresentCount, AttendanceStatusCounts::getLateCount,
+                        AttendanceStatusCounts::getAbsentCount, AttendanceStatusCounts::getAverageArrivalMinute)
+                .containsExactly(tuple("C1", 3L, 1L, 1L, 1L, 7 * 60 + 1));
+        assertThat(attendanceRepository.countDashboardPerStudent(INSTITUTION, from, to).collectList().block())
+                .extracting(AttendanceStatusCounts::getGroupKey, AttendanceStatusCounts::getTotalRecords,
+                        AttendanceStatusCounts::getAverageArrivalMinute)
+                .containsExactlyInAnyOrder(tuple("S1", 2L, 7 * 60), tuple("S2", 1L, 7 * 60 + 3));
+        assertThat(attendanceRepository.countDashboardPerDay(INSTITUTION, from, to).collectList().block())
+                .extracting(AttendanceStatusCounts::getGroupKey, AttendanceStatusCounts::getAverageArrivalMinute)
+                .containsExactlyInAnyOrder(tuple("2025-03-04", 7 * 60 + 1), tuple("2025-03-05", null));
+    }
+
+    private AttendanceRecord insert(String studentId, LocalDate date, AttendanceStatus status, LocalTime arrival) {
+        LocalDateTime now = LocalDateTime.now();
+        return attendanceRepository.save(AttendanceRecord.builder()
+                .studentId(studentId)
+                .classroomId("C1")
+                .institutionId(INSTITUTION)
+                .attendanceDate(date)
+                .academicYear(date.getYear())
+                .attendanceStatus(status)
+                .arrivalTime(arrival)
+                .justified(false)
+                .registeredBy("test")
+                .registeredAt(now)
+                .updatedAt(now)
+                .build()).block();
+    }
+}
@@ -0,0 +1,139 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import pe.edu.vallegrande.vg_ms_assistance.domain.enums.AttendanceStatus;
+import pe.edu.vallegrande.vg_ms_assistance.domain.model.AttendanceStatusCounts;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataR2dbcTest(properties = "spring.flyway.enabled=false")
+class AttendanceRepositoryStatsTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedPostgresDatabases.register(registry, EmbeddedPostgresDatabases.PRIMARY);
+    }
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DELETE FROM attendance_daily_rollup").then().block();
+        // Martes 4, viernes 7, lunes 10 y miércoles 12 de marzo de 2025, más un día fuera del rango pedido
+        rollup("C1", "2025-03-04", "PRESENTE", 10);
+        rollup("C1", "2025-03-04", "AUSENTE", 2);
+        rollup("C1", "2025-03-07", "TARDANZA", 3);
+        rollup("C1", "2025-03-10", "PRESENTE", 8);
+        rollup("C1", "2025-03-10", "JUSTIFICADO", 1);
+        rollup("C1", "2025-03-12", "PERMISO", 4);
+        rollup("C1", "2025-03-14", "PRESENTE", 50);
+        rollup("C2", "2025-03-10", "PRESENTE", 99);
+    }
+
+    @Test
+    void bucketsByMondayWeeksWithTheTotalFirst() {
+        List<AttendanceStatusCounts> rows = attendanceRepository.sumRollupPerPeriodByClassroomIdAndDateRange(
+                "C1", LocalDate.of(2025, 3, 4), LocalDate.of(2025, 3, 12), "week").collectList().block();
+
+        assertThat(rows).extracting(AttendanceStatusCounts::getPeriodStart, AttendanceStatusCounts::getTotalRecords,
+                        AttendanceStatusCounts::getPresentCount, AttendanceStatusCounts::getAbsentCount,
+                        AttendanceStatusCounts::getLateCount, AttendanceStatusCounts::getJustifiedCount,
+                        AttendanceStatusCounts::getPermissionCount)
+                .containsExactly(
+                        tuple(null, 28L, 18L, 2L, 3L, 1L, 4L),
+                        tuple(LocalDate.of(2025, 3, 3), 15L, 10L, 2L, 3L, 0L, 0L),
+                        tuple(LocalDate.of(2025, 3, 10), 13L, 8L, 0L, 0L, 1L, 4L));
+    }
+
+    @Test
+    void bucketsByDayOnlyTheDaysWithRecords() {
+        List<AttendanceStatusCounts> rows = attendanceRepository.sumRollupPerPeriodByInstitutionIdAndDateRange(
+                "I1", LocalDate.of(2025, 3, 7), LocalDate.of(2025, 3, 10), "day").collectList().block();
+
+        assertThat(rows).extracting(AttendanceStatusCounts::getPeriodStart, AttendanceStatusCounts::getTotalRecords)
+                .containsExactly(
+                        tuple(null, 111L),
+                        tuple(LocalDate.of(2025, 3, 7), 3L),
+                        tuple(LocalDate.of(2025, 3, 10), 108L));
+    }
+
+    @Test
+    void emptyRangeStillReturnsAZeroTotal() {
+        List<AttendanceStatusCounts> rows = attendanceRepository.sumRollupPerPeriodByClassroomIdAndDateRange(
+                "C1", LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 30), "week").collectList().block();
+
+        assertThat(rows).extracting(AttendanceStatusCounts::getPeriodStart, AttendanceStatusCounts::getTotalRecords)
+                .containsExactly(tuple(null, 0L));
+    }
+
+    // Los COUNT(*) FILTER de STATUS_COUNTS y ROLLUP_STATUS_COUNTS escriben los estados como literales: cada
+    // estado del enum debe caer en su contador y en ninguno más. El switch sin default deja de compilar si se
+    // agrega un estado sin su contador
+    @Test
+    void statusFiltersCountEveryAttendanceStatusInItsOwnColumn() {
+        LocalDate day = LocalDate.of(2025, 5, 5);
+        databaseClient.sql("DELETE FROM attendance_records WHERE student_id LIKE 'S-STATUS-%'").then().block();
+        for (AttendanceStatus status : AttendanceStatus.values()) {
+            long count = status.ordinal() + 1;
+            rollup("C-STATUS", day.toString(), status.name(), count);
+            databaseClient.sql("INSERT INTO attendance_records (student_id, classroom_id, institution_id, " +
+                            "attendance_date, academic_year, attendance_status, registered_by, registered_at, updated_at) " +
+                            "VALUES (:studentId, 'C-STATUS', 'I1', :date, 2025, :status, 'test', now(), now())")
+                    .bind("studentId", "S-STATUS-1")
+                    .bind("date", day.plusDays(status.ordinal()))
+                    .bind("status", status.name())
+                    .then()
+                    .block();
+        }
+
+        AttendanceStatusCounts records = attendanceRepository.countStatusesByStudentIdAndDateRange(
+                "S-STATUS-1", day, day.plusDays(30)).block();
+        AttendanceStatusCounts rollup = attendanceRepository.sumRollupByClassroomIdAndDateRange(
+                "C-STATUS", day, day).block();
+
+        long rollupTotal = 0;
+        for (AttendanceStatus status : AttendanceStatus.values()) {
+            assertThat(countOf(records, status)).as("attendance_records %s", status).isEqualTo(1);
+            assertThat(countOf(rollup, status)).as("attendance_daily_rollup %s", status).isEqualTo(status.ordinal() + 1);
+            rollupTotal += status.ordinal() + 1;
+        }
+        assertThat(records.getTotalRecords()).isEqualTo(AttendanceStatus.values().length);
+        assertThat(rollup.getTotalRecords()).isEqualTo(rollupTotal);
+    }
+
+    private static long countOf(AttendanceStatusCounts counts, AttendanceStatus status) {
+        return switch (status) {
+            case PRESENTE -> counts.getPresentCount();
+            case AUSENTE -> counts.getAbsentCount();
+            case TARDANZA -> counts.getLateCount();
+            case JUSTIFICADO -> counts.getJustifiedCount();
+            case PERMISO -> counts.getPermissionCount();
+        };
+    }
+
+    private void rollup(String classroomId, String date, String status, long count) {
+        databaseClient.sql("INSERT INTO attendance_daily_rollup " +
+                        "(institution_id, classroom_id, attendance_date, attendance_status, record_count) " +
+                        "VALUES ('I1', :classroomId, :date, :status, :count)")
+                .bind("classroomId", classroomId)
+                .bind("date", LocalDate.parse(date))
+                .bind("status", status)
+                .bind("count", count)
+                .then()
+                .block();
+    }
+}
@@ -0,0 +1,61 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bases PostgreSQL embebidas para las pruebas que ejecutan SQL real. Cada base se levanta una sola vez por
+ * ejecución, con las migraciones de Flyway aplicadas, y se apaga al terminar la JVM.
+ */
+public final class EmbeddedPostgresDatabases {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private static final Map<String, EmbeddedPostgres> DATABASES = new HashMap<>();
+
+    private EmbeddedPostgresDatabases() {
+    }
+
+    public static synchronized EmbeddedPostgres get(String name) {
+        return DATABASES.computeIfAbsent(name, key -> start());
+    }
+
+    public static String r2dbcUrl(String name) {
+        return "r2dbc:postgresql://localhost:" + get(name).getPort() + "/postgres";
+    }
+
+    // spring.r2dbc apuntando a la base indicada
+    public static void register(DynamicPropertyRegistry registry, String name) {
+        registry.add("spring.r2dbc.url", () -> r2dbcUrl(name));
+        registry.add("spring.r2dbc.username", () -> "postgres");
+        registry.add("spring.r2dbc.password", () -> "postgres");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // La JVM ya está terminando
+                }
+            }));
+            Flyway.configure()
+                    .dataSource(postgres.getPostgresDatabase())
+                    .locations("classpath:db/migration")
+                    .load()
+                    .migrate();
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
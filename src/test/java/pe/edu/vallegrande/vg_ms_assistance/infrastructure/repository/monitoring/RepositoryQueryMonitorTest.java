@@ -0,0 +1,62 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RepositoryQueryMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void countsEachSubscriptionInTheRequestLog() throws Throwable {
+        RepositoryQueryMonitor monitor = new RepositoryQueryMonitor("AttendanceRepository", Duration.ofSeconds(1), meterRegistry);
+        RequestQueryLog queries = new RequestQueryLog();
+
+        @SuppressWarnings("unchecked")
+        Mono<String> query = (Mono<String>) monitor.invoke(invocation("findById", Mono.just("row")));
+        Flux<String> request = Flux.range(0, 3)
+                .concatMap(i -> query)
+                .contextWrite(queries::addTo);
+
+        StepVerifier.create(request).expectNextCount(3).verifyComplete();
+        assertThat(queries.repeatedAtLeast(3)).isEqualTo(Map.of("findById", 3L));
+        assertThat(meterRegistry.find("repository.queries.slow").counter()).isNull();
+    }
+
+    @Test
+    void countsQueriesOverTheThresholdAsSlow() throws Throwable {
+        RepositoryQueryMonitor monitor = new RepositoryQueryMonitor("AttendanceRepository", Duration.ofMillis(20), meterRegistry);
+
+        @SuppressWarnings("unchecked")
+        Flux<String> query = (Flux<String>) monitor.invoke(
+                invocation("findPageAfter", Flux.just("a", "b").delayElements(Duration.ofMillis(20))));
+
+        StepVerifier.create(query).expectNext("a", "b").verifyComplete();
+        assertThat(meterRegistry.get("repository.queries.slow").tag("method", "findPageAfter").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    private static MethodInvocation invocation(String methodName, Object result) throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.proceed()).thenReturn(result);
+        when(invocation.getMethod()).thenReturn(Sample.class.getMethod(methodName));
+        return invocation;
+    }
+
+    interface Sample {
+        Mono<String> findById();
+
+        Flux<String> findPageAfter();
+    }
+}
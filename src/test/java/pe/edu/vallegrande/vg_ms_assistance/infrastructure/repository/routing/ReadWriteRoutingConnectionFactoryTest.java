@@ -0,0 +1,63 @@
+package pe.edu.vallegrande.vg_ms_assistance.infrastructure.repository.routing;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(MockitoExtension.class)
+class ReadWriteRoutingConnectionFactoryTest {
+
+    @Mock
+    private ConnectionFactory primary;
+
+    @Mock
+    private ConnectionFactory replica;
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+
+    private ReadWriteRoutingConnectionFactory routing;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReadWriteRoutingConnectionFactory(primary, replica);
+        routing.afterPropertiesSet();
+    }
+
+    @Test
+    void sendsReadOnlyQueriesToReplicaAndTheRestToPrimary() {
+        doReturn(Mono.just(primaryConnection)).when(primary).create();
+        doReturn(Mono.just(replicaConnection)).when(replica).create();
+
+        StepVerifier.create(ReadWriteRouting.readOnly(routing.create()))
+                .expectNext(replicaConnection)
+                .verifyComplete();
+        StepVerifier.create(routing.create())
+                .expectNext(primaryConnection)
+                .verifyComplete();
+    }
+
+    @Test
+    void keepsReadsOnPrimaryAfterTheRequestWrote() {
+        doReturn(Mono.just(primaryConnection)).when(primary).create();
+        doReturn(Mono.just(replicaConnection)).when(replica).create();
+
+        Mono<Connection> request = ReadWriteRouting.readOnly(routing.create())
+                .then(routing.create())
+                .then(ReadWriteRouting.readOnly(routing.create()))
+                .contextWrite(ReadWriteRouting::withRequestState);
+
+        StepVerifier.create(request)
+                .expectNext(primaryConnection)
+                .verifyComplete();
+    }
+}
@@ -3,7 +3,11 @@ package pe.edu.vallegrande.vg_ms_assistance.vg_ms_assistance;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+		"spring.flyway.enabled=false",
+		"attendance.snapshot.reconciler.enabled=false",
+		"attendance.partitioning.enabled=false"
+})
 class VgMsAssistanceApplicationTests {
 
 	@Test